@@ -160,7 +160,8 @@ public class WarwickPlus {
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
         try{
-            LoadData loading = new LoadData(loadingBar, loadingText, creditsPath, keywordsPath, movieMetadataPath, ratingsPath);
+            //Parse the credits, keywords and ratings files at the same time once the metadata is in
+            LoadData loading = new LoadData(loadingBar, loadingText, creditsPath, keywordsPath, movieMetadataPath, ratingsPath, true);
             //Populate the student stores
             if (numMovies == null){
                 loading.populate(stores);
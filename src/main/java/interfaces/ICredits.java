@@ -28,6 +28,8 @@ public interface ICredits{
 
     public Person[] findCast(String searchTerm);
     public Person[] findCrew(String searchTerm);
+    public Person[] suggestCast(String prefix, int numResults);
+    public Person[] suggestCrew(String prefix, int numResults);
 
     public int size();
 }
\ No newline at end of file
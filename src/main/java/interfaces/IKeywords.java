@@ -14,6 +14,9 @@ public interface IKeywords{
     public int[] getKeywordIDs();
 
     public int[] getFilmsWithKeyword(int keywordID);
+    public int[] getFilmsWithAllKeywords(int[] keywordIDs);
+    public int[] getFilmsWithAllKeywords(int[] keywordIDs, int[] excludedKeywordIDs);
+    public int[] getFilmsWithAnyKeyword(int[] keywordIDs);
 
     public Keyword[] getKeywordsForFilm(int filmID);
     public Keyword[] getUnique();
@@ -21,6 +24,7 @@ public interface IKeywords{
     public int[] getMostKeywordFilms(int numResults);
 
     public Keyword[] findKeywords(String searchTerm);
+    public Keyword[] suggestKeywords(String prefix, int numResults);
 
     public String toString();
     public int size();
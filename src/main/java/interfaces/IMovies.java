@@ -50,8 +50,31 @@ public interface IMovies {
     public boolean addProductionCountry(int movieId, String country);
     public Company[] getProductionCompanies(int movieId);
     public String[] getProductionCountries(int movieId);
+    public int getNumProductionCompanies(int movieId);
+    public Company getProductionCompany(int movieId, int index);
+    public int getNumProductionCountries(int movieId);
+    public String getProductionCountry(int movieId, int index);
+
+    public int[] getFilmsByCompany(int companyID);
+    public int[] getFilmsByCountry(String country);
+    public int getNumFilmsByCompany(int companyID);
+    public int getNumFilmsByCountry(String country);
+    public long getTotalBudgetByCompany(int companyID);
+    public long getTotalBudgetByCountry(String country);
+    public long getTotalRevenueByCompany(int companyID);
+    public long getTotalRevenueByCountry(String country);
+
+    /**
+     * The average vote of a company's or country's films is weighted by vote
+     * count: the sum of each film's vote average times its vote count, over
+     * the total vote count. Films without votes don't count, and -1 is
+     * returned if none of the films have votes.
+     */
+    public double getAverageVoteByCompany(int companyID);
+    public double getAverageVoteByCountry(String country);
 
     public int[] findFilms(String searchTerm);
+    public int[] suggestFilms(String prefix, int numResults);
 
     public int size();
 }
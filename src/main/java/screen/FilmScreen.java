@@ -225,28 +225,29 @@ public class FilmScreen {
         statsText += tmp;
         statsText += "Straight to Video: " + movies.getVideo(filmID)+"\n";
         statsText += "Adult film: " + movies.getAdult(filmID)+"\n\n";
-        Company[] tmpCompanies = movies.getProductionCompanies(filmID);
-        if (tmpCompanies == null) {
+        int numCompanies = movies.getNumProductionCompanies(filmID);
+        if (numCompanies < 0) {
             tmp = "Unknown Production Companies";
-        } else if (tmpCompanies.length == 0) {
+        } else if (numCompanies == 0) {
             tmp = "No Production Companies known";
         } else {
             tmp = "Production Companies:";
-            for (int i = 0; i < tmpCompanies.length; i++) {
-                tmp += "\n\t* " + tmpCompanies[i].getName();
+            for (int i = 0; i < numCompanies; i++) {
+                tmp += "\n\t* " + movies.getProductionCompany(filmID, i).getName();
             }
         }
         statsText += tmp + "\n";
-        String[] tmpCountries = movies.getProductionCountries(filmID);
-        if (tmpCountries == null) {
+        int numCountries = movies.getNumProductionCountries(filmID);
+        if (numCountries < 0) {
             tmp = "Unknown Production Countries";
-        } else if (tmpCountries.length == 0) {
+        } else if (numCountries == 0) {
             tmp = "No Production Countries known";
         } else {
             tmp = "Production Countries:";
-            for (int i = 0; i < tmpCountries.length; i++) {
+            for (int i = 0; i < numCountries; i++) {
+                String country = movies.getProductionCountry(filmID, i);
                 tmp += "\n\t* ";
-                String[] isoCountries = IsoSearch.iso3166SearchByKey(tmpCountries[i]);
+                String[] isoCountries = IsoSearch.iso3166SearchByKey(country);
                 if (isoCountries.length < 1) {
                     tmp += "UNKNOWN ISO 3166 COUNTRY ";
                 } else {
@@ -255,7 +256,7 @@ public class FilmScreen {
                 for (int j = 1; j < isoCountries.length; j++) {
                     tmp += ", " + isoCountries[j];
                 }
-                tmp += " - ("+tmpCountries[i]+")";
+                tmp += " - ("+country+")";
             }
         }
         statsText += tmp;
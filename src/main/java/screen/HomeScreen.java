@@ -215,8 +215,8 @@ class TopAverageRatedMovies extends MovieReel {
             this.add(new JLabel(message));
         }
         else{
-            String[] labels = new String[length];
-            for (int i = 0; i < length; i++){
+            String[] labels = new String[movieResults.length];
+            for (int i = 0; i < movieResults.length; i++){
                 labels[i] = String.format("%s (%.2f ★)", stores.getMovies().getTitle(movieResults[i]),
                                                      stores.getRatings().getMovieAverageRating(movieResults[i]));
             }
@@ -240,8 +240,8 @@ class MostKeywordMovies extends MovieReel {
             System.out.println("\tNo most keyword movie ratings found");
         }
         else{
-            String[] labels = new String[length];
-            for (int i = 0; i < length; i++){
+            String[] labels = new String[movieResults.length];
+            for (int i = 0; i < movieResults.length; i++){
                 labels[i] = String.format("%s (%d)", stores.getMovies().getTitle(movieResults[i]),
                                                          stores.getKeywords().getKeywordsForFilm(movieResults[i]).length);
             }
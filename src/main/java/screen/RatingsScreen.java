@@ -230,8 +230,8 @@ class MostRatedMovieReel extends MovieReel {
             this.add(new JLabel(message));
         }
         else{
-            String[] labels = new String[length];
-            for (int i = 0; i < length; i++){
+            String[] labels = new String[movieResults.length];
+            for (int i = 0; i < movieResults.length; i++){
                 labels[i] = String.format("%s (%d)", stores.getMovies().getTitle(movieResults[i]),
                                                      stores.getRatings().getNumRatings(movieResults[i]));
             }
@@ -255,8 +255,8 @@ class TopRatedMovieReel extends MovieReel {
             System.out.println("\tNo top rated movie ratings found");
         }
         else{
-            String[] labels = new String[length];
-            for (int i = 0; i < length; i++){
+            String[] labels = new String[movieResults.length];
+            for (int i = 0; i < movieResults.length; i++){
                 labels[i] = String.format("%s (%.2f ★)", stores.getMovies().getTitle(movieResults[i]),
                                                          stores.getRatings().getMovieAverageRating(movieResults[i]));
             }
@@ -1,34 +1,32 @@
 package stores;
-import structures.*;
+import structures.IntPostingList;
 
 public class Collections {
-    private int size;
     private int collectionID;
     private String collectionName;
     private String collectionPoster;
     private String collectionBackground;
-    private MyLinkedList<MetaData> films;
+    private IntPostingList films; //IDs of the films in the collection, in ascending order
 
     public Collections(int collectionID, String collectionName, String collectionPoster, String collectionBackground) {
         this.collectionID = collectionID;
         this.collectionName = collectionName;
         this.collectionPoster = collectionPoster;
         this.collectionBackground = collectionBackground;
-        this.films = new MyLinkedList<>();
-        this.size = 0;
+        this.films = new IntPostingList(4);
+    }
+
+    // Adds a film to the collection. Returns false if it is already in it
+    public boolean add(int filmID) {
+        return films.add(filmID);
+    }
 
-        
+    public boolean remove(int filmID) {
+        return films.remove(filmID);
     }
 
-    public boolean add(MetaData newMovie) {
-        try {
-            films.add(newMovie);
-            size++;
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-         
+    public boolean contains(int filmID) {
+        return films.contains(filmID);
     }
     public int getCollectionID() {
         return collectionID;
@@ -62,15 +60,16 @@ public class Collections {
         this.collectionBackground = newCollectionBackground;
     }
 
-    public MyLinkedList<MetaData> getFims() {
-        return films;
+    // Returns the IDs of the films in the collection, in ascending order
+    public int[] getFilms() {
+        return films.toArray();
     }
 
-    public MetaData getFilm(int id) {
-        return films.get(id);
+    public int getFilm(int index) {
+        return films.get(index);
     }
 
     public int getSize() {
-        return size;
+        return films.size();
     }
 }
@@ -26,5 +26,24 @@ public class Company implements ICompany {
     public int compareTo(ICompany company) {
         return ((Integer) id).compareTo(company.getID());
     }
+
+    // Companies are equal when they have the same ID, matching compareTo. The name
+    // is not compared
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Company)) {
+            return false;
+        }
+        Company company = (Company) other;
+        return id == company.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
     
 }
@@ -5,8 +5,11 @@ import interfaces.ICredits;
 
 public class Credits implements ICredits{
     Stores stores;
-    HashMap<Integer, CreditsMetaData> CreditsDataTable; //HashMap for Credits info
-    MyLinkedList<Integer> films = new MyLinkedList<>(); //Linked List for movies
+    IntObjectMap<CreditsMetaData> CreditsDataTable; //HashMap for Credits info
+    PersonRegistry castRegistry; //Every distinct cast member, keyed by cast ID
+    PersonRegistry crewRegistry; //Every distinct crew member, keyed by crew ID
+    IntObjectMap<FilmPostings> castFilms; //Films each cast member is credited on, keyed by cast ID
+    IntObjectMap<FilmPostings> crewFilms; //Films each crew member is credited on, keyed by crew ID
     int size;
 
     /**
@@ -19,7 +22,11 @@ public class Credits implements ICredits{
     public Credits (Stores stores) {
         //Initializing data structure
         this.stores = stores;
-        this.CreditsDataTable = new HashMap<>();
+        this.CreditsDataTable = new IntObjectMap<>();
+        this.castRegistry = new PersonRegistry();
+        this.crewRegistry = new PersonRegistry();
+        this.castFilms = new IntObjectMap<>();
+        this.crewFilms = new IntObjectMap<>();
         size = 0;
     }
 
@@ -36,10 +43,23 @@ public class Credits implements ICredits{
     public boolean add(CastCredit[] cast, CrewCredit[] crew, int id) {
         //Check if the movie is already in the hashmap
         if (!CreditsDataTable.containsKey(id)) {
-            //Add the movie to the HashMap, linked list and increment the size
+            //Add the movie to the HashMap and increment the size
             CreditsMetaData credits = new CreditsMetaData(cast, crew);
             CreditsDataTable.add(id, credits);
-            films.add(id);
+
+            //Register everyone credited on the film and add the film to their postings
+            if (cast != null) {
+                for (CastCredit castCredit : cast) {
+                    castRegistry.add(castCredit.getID(), castCredit.getName(), castCredit.getProfilePath());
+                    addPosting(castFilms, castCredit.getID(), id, castCredit.getOrder());
+                }
+            }
+            if (crew != null) {
+                for (CrewCredit crewCredit : crew) {
+                    crewRegistry.add(crewCredit.getID(), crewCredit.getName(), crewCredit.getProfilePath());
+                    addPosting(crewFilms, crewCredit.getID(), id, 0);
+                }
+            }
             size++;
             return true;
         }
@@ -55,9 +75,23 @@ public class Credits implements ICredits{
      */
     @Override
     public boolean remove(int id) {
-        //Remove the movie from the HashMap
+        //Get the movie's credits before removing it from the HashMap
+        CreditsMetaData credits = CreditsDataTable.get(id);
         boolean isRemove=CreditsDataTable.remove(id);
         if(isRemove){
+            //Drop the film's credits from the person registries and postings
+            if (credits.getCastCredit() != null) {
+                for (CastCredit castCredit : credits.getCastCredit()) {
+                    castRegistry.remove(castCredit.getID());
+                    removePosting(castFilms, castCredit.getID(), id);
+                }
+            }
+            if (credits.getCrewCredit() != null) {
+                for (CrewCredit crewCredit : credits.getCrewCredit()) {
+                    crewRegistry.remove(crewCredit.getID());
+                    removePosting(crewFilms, crewCredit.getID(), id);
+                }
+            }
             size--; //Decrement size
         }
         return isRemove;
@@ -155,34 +189,8 @@ public class Credits implements ICredits{
      */
     @Override
     public Person[] getUniqueCast() {
-        //Create a new ArrayList for the Cast and a new Set so the IDs are not repeated
-        MyArrayList<Person> uniqueCast = new MyArrayList<>();
-        Set0<Integer> uniqueCastIDs = new Set0<>(); 
-
-        //Iterate through each movie to get the cast members
-        for (int i = 0; i < size(); i++) {
-            CastCredit[] castList = getFilmCast(films.get(i));
-            for (CastCredit castMember : castList) {
-                int castID = castMember.getID();
-
-                //Check is the castID is unique
-                if (!uniqueCastIDs.contains(castID)) {
-
-                    //Create a Person object and add to list
-                    Person castAsPerson = new Person(castMember.getID(), castMember.getName(), castMember.getProfilePath());
-                    uniqueCast.add(castAsPerson);
-                    uniqueCastIDs.add(castID);
-                }
-            }
-        }
-
-        //Convert ArrayList to Person Array
-        Person[] uniqueCastArray = new Person[uniqueCast.size()];
-        for (int i = 0; i < uniqueCast.size(); i++) {
-            uniqueCastArray[i] = uniqueCast.get(i);
-        }
-
-        return uniqueCastArray;
+        //The registry holds each cast member once
+        return castRegistry.toArray();
     }
 
     /**
@@ -193,34 +201,8 @@ public class Credits implements ICredits{
      */
     @Override
     public Person[] getUniqueCrew() {
-        //Create a new ArrayList for the Cast and a new Set so the IDs are not repeated
-        MyArrayList<Person> uniqueCrew = new MyArrayList<>();
-        Set0<Integer> uniqueCrewIDs = new Set0<>();
-
-        //Iterate through each movie to get the crew members
-        for (int i = 0; i < size(); i++) {
-            CrewCredit[] crewList = getFilmCrew(films.get(i));
-            for (CrewCredit crewMember : crewList) {
-                int crewID = crewMember.getID();
-
-                //Check is the crewID is unique
-                if (!uniqueCrewIDs.contains(crewID)) {
-
-                    //Create a Person object and add to list
-                    Person crewAsPerson = new Person(crewMember.getID(), crewMember.getName(), crewMember.getProfilePath());
-                    uniqueCrew.add(crewAsPerson);
-                    uniqueCrewIDs.add(crewID);
-                }
-            }
-        }
-
-        //Convert ArrayList to Person Array
-        Person[] uniqueCrewArray = new Person[uniqueCrew.size()];
-        for (int i = 0; i < uniqueCrew.size(); i++) {
-            uniqueCrewArray[i] = uniqueCrew.get(i);
-        }
-
-        return uniqueCrewArray;
+        //The registry holds each crew member once
+        return crewRegistry.toArray();
     }
 
     /**
@@ -232,26 +214,8 @@ public class Credits implements ICredits{
      */
     @Override
     public Person[] findCast(String cast) {
-        MyLinkedList<Person> foundCastList = new MyLinkedList<>(); //Linked List to store Cast Members
-        Person[] castMembers = getUniqueCast(); //Person array to get the unique cast
-
-        //Iterate through each member
-        for (int i=0; i<castMembers.length; i++){
-            Person castMember = castMembers[i];
-            
-            //If the cast member contains the String, add it to the list
-            if (castMember.getName().contains(cast)){
-                foundCastList.add(castMember);
-            }
-        }
-
-        //Convert linked list to Person Array
-        Person[] foundCastArray = new Person[foundCastList.size()];
-        for (int k=0; k<foundCastList.size(); k++){
-            foundCastArray[k] = foundCastList.get(k);
-        }
-
-        return foundCastArray;
+        //The registry's name index only checks names sharing the search term's trigrams
+        return castRegistry.find(cast);
     }
 
     /**
@@ -263,26 +227,38 @@ public class Credits implements ICredits{
      */
     @Override
     public Person[] findCrew(String crew) {
-        MyLinkedList<Person> foundCrewList = new MyLinkedList<>(); //Linked List to store Crew Members
-        Person[] crewMembers = getUniqueCrew(); //Person array to get the unique Crew
-
-        //Iterate through each member
-        for (int i=0; i<crewMembers.length; i++){
-            Person crewMember = crewMembers[i];
-
-            //If the crew member contains the String, add it to the list
-            if (crewMember.getName().contains(crew)){
-                foundCrewList.add(crewMember);
-            }
-        }
+        //The registry's name index only checks names sharing the search term's trigrams
+        return crewRegistry.find(crew);
+    }
 
-        //Convert linked list to Person Array
-        Person[] foundCrewArray = new Person[foundCrewList.size()];
-        for (int k=0; k<foundCrewList.size(); k++){
-            foundCrewArray[k] = foundCrewList.get(k);
-        }
+    /**
+     * Suggests cast members for a search box as the user types. A cast member
+     * matches when a word of their name starts with the prefix, ignoring case
+     * 
+     * @param prefix     What the user has typed so far
+     * @param numResults The maximum number of cast members to return (at most
+     *                   PrefixIndex.DEFAULT_SUGGESTIONS)
+     * @return The matching cast members, most credited first. If nobody
+     *         matches, an empty array
+     */
+    @Override
+    public Person[] suggestCast(String prefix, int numResults) {
+        return castRegistry.suggest(prefix, numResults);
+    }
 
-        return foundCrewArray;
+    /**
+     * Suggests crew members for a search box as the user types. A crew member
+     * matches when a word of their name starts with the prefix, ignoring case
+     * 
+     * @param prefix     What the user has typed so far
+     * @param numResults The maximum number of crew members to return (at most
+     *                   PrefixIndex.DEFAULT_SUGGESTIONS)
+     * @return The matching crew members, most credited first. If nobody
+     *         matches, an empty array
+     */
+    @Override
+    public Person[] suggestCrew(String prefix, int numResults) {
+        return crewRegistry.suggest(prefix, numResults);
     }
 
     /**
@@ -294,17 +270,8 @@ public class Credits implements ICredits{
      */
     @Override
     public Person getCast(int castID) {
-        //Get unique cast members
-        Person[] castMembers = getUniqueCast();
-
-        //Iterate through the members
-        for (int k=0; k<castMembers.length; k++){
-            //If the ID of the cast member is the same as the ID passed, return the cast member
-            if (castMembers[k].getID()== castID){
-                return castMembers[k];
-            }
-        }
-        return null;
+        //Look the cast member up in the registry
+        return castRegistry.get(castID);
     }
 
     /**
@@ -316,18 +283,8 @@ public class Credits implements ICredits{
      */
     @Override
     public Person getCrew(int crewID){
-        //Get unique crew members
-        Person[] crewMembers = getUniqueCrew();
-
-        //Iterate through the members
-        for (int k=0; k<crewMembers.length; k++){
-
-            //If the ID of the cast member is the same as the ID passed, return the cast member
-            if (crewMembers[k].getID()== crewID){
-                return crewMembers[k];
-            }
-        }
-        return null;    
+        //Look the crew member up in the registry
+        return crewRegistry.get(crewID);
     }
 
     
@@ -341,34 +298,12 @@ public class Credits implements ICredits{
      */
     @Override
     public int[] getCastFilms(int castID){
-        //Create a Linked List for movie IDs
-        MyLinkedList<Integer> FilmIdList = new MyLinkedList<>();
-
-        //Iterate through the list of movies
-        for (int i=0; i<films.size(); i++) {
-
-            //For each movie in the array list get the id and cast list
-            int movie = films.get(i);
-            CastCredit[] castList = getFilmCast(movie);
-
-            //Iterate through the cast list of the movie
-            for (CastCredit j : castList){
-                if (j.getID() == castID){
-                    //If a movie is found add it to the linked list and break out of the loop
-                    FilmIdList.add(movie);
-                    break;
-                }
-
-            }
-        }
-
-        //Convert the linked list to an array
-        int[] filmIDArray = new int[FilmIdList.size()];
-        for (int k = 0; k < FilmIdList.size(); k++) {
-            filmIDArray[k] = FilmIdList.get(k);
+        //Look up the films in the cast member's postings
+        FilmPostings postings = castFilms.get(castID);
+        if (postings == null) {
+            return new int[0];
         }
-
-        return filmIDArray;  
+        return postings.getFilms();
     }
 
     /**
@@ -381,32 +316,12 @@ public class Credits implements ICredits{
      */
     @Override
     public int[] getCrewFilms(int crewID) {
-        //Create a Linked List for movie IDs
-        MyLinkedList<Integer> FilmIdList = new MyLinkedList<>();
-
-        //Iterate through the list of movies
-        for (int i=0; i<films.size(); i++) {
-
-            //For each movie in the array list get the id and crew list
-            int movie = films.get(i);
-            CrewCredit[] crewList = getFilmCrew(movie);
-
-            //Iterate through the crew list of the movie
-            for (CrewCredit j : crewList){
-                //If a movie is found add it to the linked list and break out of the loop
-                if (j.getID() == crewID){
-                    FilmIdList.add(movie);
-                    break;
-                }
-            }
-        }
-
-        //Convert the linked list to an array
-        int[] filmIDArray = new int[FilmIdList.size()];
-        for (int k = 0; k < FilmIdList.size(); k++) {
-            filmIDArray[k] = FilmIdList.get(k);
+        //Look up the films in the crew member's postings
+        FilmPostings postings = crewFilms.get(crewID);
+        if (postings == null) {
+            return new int[0];
         }
-        return filmIDArray;
+        return postings.getFilms();
     }
 
     /**
@@ -421,35 +336,14 @@ public class Credits implements ICredits{
      */
     @Override
     public int[] getCastStarsInFilms(int castID){
-        //Create a Linked List for the stars
-        MyLinkedList<Integer> starsInFilms = new MyLinkedList<>();
-
-         //Iterate through the list of movies
-        for (int i = 0; i < films.size(); i++) {
-
-            //For each movie in the array list get the id and cast list
-            int movieID = films.get(i);
-            CastCredit[] castList = getFilmCast(movieID);
-
-            //Iterate through the cast list
-            for (CastCredit castCredit : castList) {
-
-                //If the IDs match and order is <= 3, add the cast member to the linked list and break out of the loop
-                if (castCredit.getID() == castID && castCredit.getOrder() <= 3) {
-                    starsInFilms.add(movieID);
-                    break;
-                }
-            }
-        }
-
-        //Convert the linked list to an array
-        int[] starsInFilmsArray = new int[starsInFilms.size()];
-        for (int i = 0; i < starsInFilms.size(); i++) {
-            starsInFilmsArray[i] = starsInFilms.get(i);
+        FilmPostings postings = castFilms.get(castID);
+        if (postings == null) {
+            return new int[0];
         }
 
-        return starsInFilmsArray;
-        }
+        //Postings are sorted by billing order, so the top 3 billed films are a prefix
+        return postings.getFilmsUpToOrder(3);
+    }
     
     /**
      * Get Person objects for cast members who have appeared in the most
@@ -466,43 +360,18 @@ public class Credits implements ICredits{
      */
     @Override
     public Person[] getMostCastCredits(int numResults) {
-        //Create a new set for the cast IDs
-        Set0<Integer> castIDsSet = new Set0<>();
-        int[] creditsCounts = new int[2000000]; //Insanely large number because why not
-
-        //Iterate through the list of movies
-        for (int i = 0; i < films.size(); i++) {
-
-            //For each movie get the movie id and the cast list
-            int movieID = films.get(i);
-            CastCredit[] castList = getFilmCast(movieID);
-
-            //Iterate through the cast list
-            for (CastCredit castCredit : castList) {
-
-                //Get the cast ID, add it to the lest and the array
-                int castID = castCredit.getID();
-                castIDsSet.add(castID);
-                creditsCounts[castID]++;
-            }
+        //Keep only the numResults cast members with the most credits
+        TopKSelector topCast = new TopKSelector(numResults);
+        int[] castIDs = castFilms.keys();
+        FilmPostings[] postings = castFilms.values(new FilmPostings[castIDs.length]);
+        for (int i = 0; i < castIDs.length; i++) {
+            topCast.offer(castIDs[i], postings[i].getTotalCredits());
         }
 
-        //Get the top cast members
-        int numCastMembers = Math.min(numResults, castIDsSet.size());
-        Person[] topCastMembers = new Person[numCastMembers];
-
-        //Convert the set to an array
-        Integer[] sortedCastIDs = new Integer[castIDsSet.size()];
-        int index = 0;
-        for (Integer castID : castIDsSet) {
-            sortedCastIDs[index++] = castID;
-        }
-
-        //Sort the cast ID based on the credit count using quicksort
-        quickSort(sortedCastIDs, creditsCounts, 0, sortedCastIDs.length - 1);
-
-        //Convert sorted cast IDs to Person array
-        for (int i = 0; i < numCastMembers; i++) {
+        //Convert the ranked cast IDs to a Person array
+        int[] sortedCastIDs = topCast.toSortedIDs();
+        Person[] topCastMembers = new Person[sortedCastIDs.length];
+        for (int i = 0; i < sortedCastIDs.length; i++) {
             topCastMembers[i] = getCast(sortedCastIDs[i]);
         }
 
@@ -521,60 +390,31 @@ public class Credits implements ICredits{
      */
     @Override
     public int getNumCastCredits(int castID) {
-        boolean found = false;
-        int credits = 0;
-
-        //Iterate through the list of movies
-        for (int i = 0; i < films.size(); i++) {
-
-            //For each movie get the id and cast list
-            int movieID = films.get(i);
-            CastCredit[] castList = getFilmCast(movieID);
-
-            //Iterate through the cast list
-            for (CastCredit castCredit : castList) {
-
-                //If the IDs match, increment credits
-                if (castCredit.getID() == castID) {
-                    credits++;
-                    found = true;
-                }
-            }
-        }
-        return found ? credits : -1;
+        //The postings count every role the cast member has played
+        FilmPostings postings = castFilms.get(castID);
+        return postings == null ? -1 : postings.getTotalCredits();
     }
 
 
 
 
-    //HELPER METHODS BELOW
-
+    //HELPER METHODS
 
-
-    // Quicksort algorithm
-    private void quickSort(Integer[] arr, int[] creditsCounts, int low, int high) {
-        if (low < high) {
-            int pi = partition(arr, creditsCounts, low, high);
-            quickSort(arr, creditsCounts, low, pi - 1);
-            quickSort(arr, creditsCounts, pi + 1, high);
+    // Records one credit on filmID in the postings kept under personID
+    private void addPosting(IntObjectMap<FilmPostings> index, int personID, int filmID, int order) {
+        FilmPostings postings = index.get(personID);
+        if (postings == null) {
+            postings = new FilmPostings();
+            index.add(personID, postings);
         }
+        postings.add(filmID, order);
     }
 
-    // Partition function for quicksort
-    private int partition(Integer[] arr, int[] creditsCounts, int low, int high) {
-        int pivot = creditsCounts[arr[high]];
-        int i = low - 1;
-        for (int j = low; j < high; j++) {
-            if (creditsCounts[arr[j]] >= pivot) {
-                i++;
-                int temp = arr[i];
-                arr[i] = arr[j];
-                arr[j] = temp;
-            }
+    // Drops filmID from the postings kept under personID, and the postings once they are empty
+    private void removePosting(IntObjectMap<FilmPostings> index, int personID, int filmID) {
+        FilmPostings postings = index.get(personID);
+        if (postings != null && postings.remove(filmID) && postings.isEmpty()) {
+            index.remove(personID);
         }
-        int temp = arr[i + 1];
-        arr[i + 1] = arr[high];
-        arr[high] = temp;
-        return i + 1;
     }
 }
@@ -0,0 +1,488 @@
+package stores;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import structures.HashMap;
+import structures.IntIntMap;
+import structures.IntObjectMap;
+
+// A FilmTable that stores each field in its own array, one slot per film,
+// instead of one MetaData object per film. Numbers sit in primitive arrays, the
+// release date is an int epoch day, the adult and video flags are bits, and
+// the status and original language, which repeat across thousands of films,
+// are stored once in a dictionary and referenced by code. A scan over one
+// field then reads a single contiguous array. Films fill rows 0 to size-1, and
+// removing a film moves the last row into the freed one.
+public class FilmColumns implements FilmTable {
+    private static final int NO_RELEASE = Integer.MIN_VALUE; //Release day of a film with no release date
+    private static final int FAR_RELEASE = Integer.MIN_VALUE + 1; //Release day of a film whose date does not fit in an int
+    private static final Company[] NO_COMPANIES = new Company[0];
+    private static final String[] NO_COUNTRIES = new String[0];
+
+    private final IntIntMap rows = new IntIntMap(); //Row of each film, keyed by film ID
+    private final IntObjectMap<LocalDate> farReleases = new IntObjectMap<>(); //Dates too far out for an int epoch day, keyed by film ID
+    private final Dictionary statusCodes = new Dictionary();
+    private final Dictionary languageCodes = new Dictionary();
+    private final ProductionDictionary production = new ProductionDictionary();
+    private int size;
+
+    private int[] ids;
+    private String[] titles;
+    private String[] originalTitles;
+    private String[] overviews;
+    private String[] taglines;
+    private int[] statuses;
+    private Genre[][] genres;
+    private int[] releaseDays;
+    private long[] budgets;
+    private long[] revenues;
+    private String[][] languages;
+    private int[] originalLanguages;
+    private double[] runtimes;
+    private String[] homepages;
+    private final BitSet adult = new BitSet();
+    private final BitSet video = new BitSet();
+    private String[] posters;
+    private double[] voteAverages;
+    private int[] voteCounts;
+    private String[] imdbIDs;
+    private double[] popularities;
+    private Company[][] companies;
+    private String[][] countries;
+
+    public FilmColumns() {
+        this(16);
+    }
+
+    public FilmColumns(int expectedSize) {
+        allocate(Math.max(expectedSize, 1));
+    }
+
+    // Strings that repeat across many films, each stored once and referenced by an int code
+    private static class Dictionary {
+        private final HashMap<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[16];
+        private int size;
+
+        // Returns the code of value, adding it the first time it is seen. Null is code -1
+        int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                code = size;
+                values[size++] = value;
+                codes.add(value, code);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return code < 0 ? null : values[code];
+        }
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return rows.containsKey(id);
+    }
+
+    @Override
+    public boolean add(int id, String title, String originalTitle, String overview, String tagline, String status, Genre[] genres, LocalDate release, long budget, long revenue, String[] languages, String originalLanguage, double runtime, String homepage, boolean adult, boolean video, String poster) {
+        if (rows.containsKey(id)) {
+            return false;
+        }
+        if (size == ids.length) {
+            allocate(size * 2);
+        }
+
+        int row = size++;
+        rows.add(id, row);
+        ids[row] = id;
+        titles[row] = title;
+        originalTitles[row] = originalTitle;
+        overviews[row] = overview;
+        taglines[row] = tagline;
+        statuses[row] = statusCodes.encode(status);
+        this.genres[row] = genres;
+        releaseDays[row] = releaseDay(id, release);
+        budgets[row] = budget;
+        revenues[row] = revenue;
+        this.languages[row] = languages;
+        originalLanguages[row] = languageCodes.encode(originalLanguage);
+        runtimes[row] = runtime;
+        homepages[row] = homepage;
+        this.adult.set(row, adult);
+        this.video.set(row, video);
+        posters[row] = poster;
+        voteAverages[row] = 0;
+        voteCounts[row] = 0;
+        imdbIDs[row] = null;
+        popularities[row] = 0;
+        companies[row] = NO_COMPANIES;
+        countries[row] = NO_COUNTRIES;
+        return true;
+    }
+
+    @Override
+    public boolean remove(int id) {
+        int row = rows.getOrDefault(id, -1);
+        if (row < 0) {
+            return false;
+        }
+        rows.remove(id);
+        farReleases.remove(id);
+
+        //Fill the hole with the last row, then clear the last row so it holds no references
+        int last = --size;
+        if (row != last) {
+            moveRow(last, row);
+            rows.add(ids[row], row);
+        }
+        clearRow(last);
+        return true;
+    }
+
+    @Override
+    public int[] ids() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getTitle(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? titles[row] : null;
+    }
+
+    @Override
+    public String getOriginalTitle(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? originalTitles[row] : null;
+    }
+
+    @Override
+    public String getOverview(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? overviews[row] : null;
+    }
+
+    @Override
+    public String getTagline(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? taglines[row] : null;
+    }
+
+    @Override
+    public String getStatus(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? statusCodes.decode(statuses[row]) : null;
+    }
+
+    @Override
+    public Genre[] getGenres(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? genres[row] : null;
+    }
+
+    @Override
+    public LocalDate getRelease(int id) {
+        int row = rowOf(id);
+        if (row < 0 || releaseDays[row] == NO_RELEASE) {
+            return null;
+        }
+        if (releaseDays[row] == FAR_RELEASE) {
+            return farReleases.get(id);
+        }
+        return LocalDate.ofEpochDay(releaseDays[row]);
+    }
+
+    @Override
+    public long getBudget(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? budgets[row] : -1;
+    }
+
+    @Override
+    public long getRevenue(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? revenues[row] : -1;
+    }
+
+    @Override
+    public String[] getLanguages(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? languages[row] : null;
+    }
+
+    @Override
+    public String getOriginalLanguage(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? languageCodes.decode(originalLanguages[row]) : null;
+    }
+
+    @Override
+    public double getRuntime(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? runtimes[row] : -1;
+    }
+
+    @Override
+    public String getHomepage(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? homepages[row] : null;
+    }
+
+    @Override
+    public boolean getAdult(int id) {
+        int row = rowOf(id);
+        return row >= 0 && adult.get(row);
+    }
+
+    @Override
+    public boolean getVideo(int id) {
+        int row = rowOf(id);
+        return row >= 0 && video.get(row);
+    }
+
+    @Override
+    public String getPoster(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? posters[row] : null;
+    }
+
+    @Override
+    public boolean setVote(int id, double voteAverage, int voteCount) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        voteAverages[row] = voteAverage;
+        voteCounts[row] = voteCount;
+        return true;
+    }
+
+    @Override
+    public double getVoteAverage(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? voteAverages[row] : -1;
+    }
+
+    @Override
+    public int getVoteCount(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? voteCounts[row] : -1;
+    }
+
+    @Override
+    public boolean setIMDB(int id, String imdbID) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        imdbIDs[row] = imdbID;
+        return true;
+    }
+
+    @Override
+    public String getIMDB(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? imdbIDs[row] : null;
+    }
+
+    @Override
+    public boolean setPopularity(int id, double popularity) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        popularities[row] = popularity;
+        return true;
+    }
+
+    @Override
+    public double getPopularity(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? popularities[row] : -1.0;
+    }
+
+    @Override
+    public boolean addCompany(int id, Company company) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        //Films have only a few companies, so grow the array by exactly one
+        Company[] grown = Arrays.copyOf(companies[row], companies[row].length + 1);
+        grown[grown.length - 1] = production.intern(company);
+        companies[row] = grown;
+        return true;
+    }
+
+    @Override
+    public boolean addCountry(int id, String country) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        String[] grown = Arrays.copyOf(countries[row], countries[row].length + 1);
+        grown[grown.length - 1] = production.intern(country);
+        countries[row] = grown;
+        return true;
+    }
+
+    @Override
+    public Company[] getCompanies(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? companies[row].clone() : null;
+    }
+
+    @Override
+    public String[] getCountries(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? countries[row].clone() : null;
+    }
+
+    @Override
+    public int getNumCompanies(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? companies[row].length : -1;
+    }
+
+    @Override
+    public Company getCompany(int id, int index) {
+        int row = rowOf(id);
+        return row >= 0 && index >= 0 && index < companies[row].length ? companies[row][index] : null;
+    }
+
+    @Override
+    public int getNumCountries(int id) {
+        int row = rowOf(id);
+        return row >= 0 ? countries[row].length : -1;
+    }
+
+    @Override
+    public String getCountry(int id, int index) {
+        int row = rowOf(id);
+        return row >= 0 && index >= 0 && index < countries[row].length ? countries[row][index] : null;
+    }
+
+    private int rowOf(int id) {
+        return rows.getOrDefault(id, -1);
+    }
+
+    // Returns the value stored in the release column, keeping dates beyond an int epoch day aside
+    private int releaseDay(int id, LocalDate release) {
+        if (release == null) {
+            return NO_RELEASE;
+        }
+        long day = release.toEpochDay();
+        if (day <= FAR_RELEASE || day > Integer.MAX_VALUE) {
+            farReleases.add(id, release);
+            return FAR_RELEASE;
+        }
+        return (int) day;
+    }
+
+    // Copies every column of row from into row to
+    private void moveRow(int from, int to) {
+        ids[to] = ids[from];
+        titles[to] = titles[from];
+        originalTitles[to] = originalTitles[from];
+        overviews[to] = overviews[from];
+        taglines[to] = taglines[from];
+        statuses[to] = statuses[from];
+        genres[to] = genres[from];
+        releaseDays[to] = releaseDays[from];
+        budgets[to] = budgets[from];
+        revenues[to] = revenues[from];
+        languages[to] = languages[from];
+        originalLanguages[to] = originalLanguages[from];
+        runtimes[to] = runtimes[from];
+        homepages[to] = homepages[from];
+        adult.set(to, adult.get(from));
+        video.set(to, video.get(from));
+        posters[to] = posters[from];
+        voteAverages[to] = voteAverages[from];
+        voteCounts[to] = voteCounts[from];
+        imdbIDs[to] = imdbIDs[from];
+        popularities[to] = popularities[from];
+        companies[to] = companies[from];
+        countries[to] = countries[from];
+    }
+
+    // Drops the references held by row, so removed films can be collected
+    private void clearRow(int row) {
+        titles[row] = null;
+        originalTitles[row] = null;
+        overviews[row] = null;
+        taglines[row] = null;
+        genres[row] = null;
+        languages[row] = null;
+        homepages[row] = null;
+        adult.clear(row);
+        video.clear(row);
+        posters[row] = null;
+        imdbIDs[row] = null;
+        companies[row] = null;
+        countries[row] = null;
+    }
+
+    // Sizes every column to hold capacity rows, keeping the rows already stored
+    private void allocate(int capacity) {
+        if (ids == null) {
+            ids = new int[capacity];
+            titles = new String[capacity];
+            originalTitles = new String[capacity];
+            overviews = new String[capacity];
+            taglines = new String[capacity];
+            statuses = new int[capacity];
+            genres = new Genre[capacity][];
+            releaseDays = new int[capacity];
+            budgets = new long[capacity];
+            revenues = new long[capacity];
+            languages = new String[capacity][];
+            originalLanguages = new int[capacity];
+            runtimes = new double[capacity];
+            homepages = new String[capacity];
+            posters = new String[capacity];
+            voteAverages = new double[capacity];
+            voteCounts = new int[capacity];
+            imdbIDs = new String[capacity];
+            popularities = new double[capacity];
+            companies = new Company[capacity][];
+            countries = new String[capacity][];
+            return;
+        }
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        originalTitles = Arrays.copyOf(originalTitles, capacity);
+        overviews = Arrays.copyOf(overviews, capacity);
+        taglines = Arrays.copyOf(taglines, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        genres = Arrays.copyOf(genres, capacity);
+        releaseDays = Arrays.copyOf(releaseDays, capacity);
+        budgets = Arrays.copyOf(budgets, capacity);
+        revenues = Arrays.copyOf(revenues, capacity);
+        languages = Arrays.copyOf(languages, capacity);
+        originalLanguages = Arrays.copyOf(originalLanguages, capacity);
+        runtimes = Arrays.copyOf(runtimes, capacity);
+        homepages = Arrays.copyOf(homepages, capacity);
+        posters = Arrays.copyOf(posters, capacity);
+        voteAverages = Arrays.copyOf(voteAverages, capacity);
+        voteCounts = Arrays.copyOf(voteCounts, capacity);
+        imdbIDs = Arrays.copyOf(imdbIDs, capacity);
+        popularities = Arrays.copyOf(popularities, capacity);
+        companies = Arrays.copyOf(companies, capacity);
+        countries = Arrays.copyOf(countries, capacity);
+    }
+}
@@ -0,0 +1,185 @@
+package stores;
+
+import java.util.Arrays;
+import structures.IntIntMap;
+
+// The films one person is credited on, for the person->films index in Credits.
+// Each film appears once, with the number of credits the person has on it and
+// their best (lowest) billing order across those credits. Films are appended as
+// they are credited and found through a film ID -> slot map once the list is
+// long enough to need one. They are sorted by that order, then by film ID, once
+// before the next read, so the films where the person is billed at or above a
+// given order are always a prefix of what the read sees.
+public class FilmPostings {
+    private static final int INDEX_THRESHOLD = 8; //Lists up to this long are scanned instead of mapped
+
+    private int[] films = new int[4];
+    private int[] orders = new int[4];
+    private int[] credits = new int[4];
+    private IntIntMap slots; //Slot of each film, only built past INDEX_THRESHOLD films
+    private boolean sorted = true; //Whether the films are in billing order
+    private int size;
+    private int totalCredits;
+
+    // Records one credit on filmID billed at the given order
+    public void add(int filmID, int order) {
+        totalCredits++;
+
+        int index = indexOf(filmID);
+        if (index >= 0) {
+            credits[index]++;
+            if (order < orders[index]) {
+                //The person is billed higher on this film than before
+                orders[index] = order;
+                sorted = false;
+            }
+            return;
+        }
+
+        if (size == films.length) {
+            int capacity = size * 2;
+            films = Arrays.copyOf(films, capacity);
+            orders = Arrays.copyOf(orders, capacity);
+            credits = Arrays.copyOf(credits, capacity);
+        }
+        //A film that sorts after the last one keeps the list in order
+        if (size > 0 && compare(size - 1, order, filmID) > 0) {
+            sorted = false;
+        }
+        films[size] = filmID;
+        orders[size] = order;
+        credits[size] = 1;
+        size++;
+
+        if (slots != null) {
+            slots.add(filmID, size - 1);
+        } else if (size > INDEX_THRESHOLD) {
+            buildSlots();
+        }
+    }
+
+    // Drops every credit on filmID. Returns false if the person had none
+    public boolean remove(int filmID) {
+        int index = indexOf(filmID);
+        if (index < 0) {
+            return false;
+        }
+        totalCredits -= credits[index];
+
+        //Move the last film into the freed slot
+        int last = size - 1;
+        if (slots != null) {
+            slots.remove(filmID);
+        }
+        if (index != last) {
+            films[index] = films[last];
+            orders[index] = orders[last];
+            credits[index] = credits[last];
+            if (slots != null) {
+                slots.add(films[index], index);
+            }
+            sorted = false;
+        }
+        size--;
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Number of distinct films
+    public int size() {
+        return size;
+    }
+
+    // Number of credits across all films, counting each role separately
+    public int getTotalCredits() {
+        return totalCredits;
+    }
+
+    // Returns every film, best billed first
+    public int[] getFilms() {
+        sort();
+        int[] result = new int[size];
+        System.arraycopy(films, 0, result, 0, size);
+        return result;
+    }
+
+    // Returns the films where the person is billed at maxOrder or better
+    public int[] getFilmsUpToOrder(int maxOrder) {
+        sort();
+
+        //Binary search for the first film billed below maxOrder
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (orders[mid] <= maxOrder) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int[] result = new int[low];
+        System.arraycopy(films, 0, result, 0, low);
+        return result;
+    }
+
+    private int indexOf(int filmID) {
+        if (slots != null) {
+            return slots.getOrDefault(filmID, -1);
+        }
+        for (int i = 0; i < size; i++) {
+            if (films[i] == filmID) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Orders the films by billing order, then film ID, if anything has moved them since the last sort
+    private void sort() {
+        if (sorted) {
+            return;
+        }
+
+        //Pack each film's order and ID into one sortable key
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) orders[i] << 32) | (films[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(keys);
+
+        //Carry each film's credit count over from its old slot before the slots change
+        int[] sortedCredits = new int[credits.length];
+        for (int i = 0; i < size; i++) {
+            sortedCredits[i] = credits[indexOf((int) keys[i])];
+        }
+        for (int i = 0; i < size; i++) {
+            films[i] = (int) keys[i];
+            orders[i] = (int) (keys[i] >> 32);
+        }
+        credits = sortedCredits;
+
+        if (slots != null) {
+            buildSlots();
+        }
+        sorted = true;
+    }
+
+    private void buildSlots() {
+        slots = new IntIntMap(size * 2);
+        for (int i = 0; i < size; i++) {
+            slots.add(films[i], i);
+        }
+    }
+
+    // Compares the film in slot index with a film of the given order and ID, in billing order
+    private int compare(int index, int order, int filmID) {
+        if (orders[index] != order) {
+            return Integer.compare(orders[index], order);
+        }
+        return Integer.compare(films[index], filmID);
+    }
+}
@@ -0,0 +1,234 @@
+package stores;
+
+import java.time.LocalDate;
+import structures.IntObjectMap;
+
+// The default FilmTable: one MetaData object per film, in a map keyed by film ID.
+public class FilmRows implements FilmTable {
+    private final IntObjectMap<MetaData> dataTable = new IntObjectMap<>();
+    private final ProductionDictionary production = new ProductionDictionary();
+
+    @Override
+    public boolean contains(int id) {
+        return dataTable.containsKey(id);
+    }
+
+    @Override
+    public boolean add(int id, String title, String originalTitle, String overview, String tagline, String status, Genre[] genres, LocalDate release, long budget, long revenue, String[] languages, String originalLanguage, double runtime, String homepage, boolean adult, boolean video, String poster) {
+        if (dataTable.containsKey(id)) {
+            return false;
+        }
+        dataTable.add(id, new MetaData(id, title, originalTitle, overview, tagline, status, genres, release, budget, revenue, languages, originalLanguage, runtime, homepage, adult, video, poster));
+        return true;
+    }
+
+    @Override
+    public boolean remove(int id) {
+        return dataTable.remove(id);
+    }
+
+    @Override
+    public int[] ids() {
+        return dataTable.keys();
+    }
+
+    @Override
+    public int size() {
+        return dataTable.size();
+    }
+
+    @Override
+    public String getTitle(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getTitle() : null;
+    }
+
+    @Override
+    public String getOriginalTitle(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getOriginalTitle() : null;
+    }
+
+    @Override
+    public String getOverview(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getOverview() : null;
+    }
+
+    @Override
+    public String getTagline(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getTagline() : null;
+    }
+
+    @Override
+    public String getStatus(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getStatus() : null;
+    }
+
+    @Override
+    public Genre[] getGenres(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getGenres() : null;
+    }
+
+    @Override
+    public LocalDate getRelease(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getRelease() : null;
+    }
+
+    @Override
+    public long getBudget(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getBudget() : -1;
+    }
+
+    @Override
+    public long getRevenue(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getRevenue() : -1;
+    }
+
+    @Override
+    public String[] getLanguages(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getLanguages() : null;
+    }
+
+    @Override
+    public String getOriginalLanguage(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getOriginalLanguage() : null;
+    }
+
+    @Override
+    public double getRuntime(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getRuntime() : -1;
+    }
+
+    @Override
+    public String getHomepage(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getHomepage() : null;
+    }
+
+    @Override
+    public boolean getAdult(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null && movie.getAdult();
+    }
+
+    @Override
+    public boolean getVideo(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null && movie.getVideo();
+    }
+
+    @Override
+    public String getPoster(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getPoster() : null;
+    }
+
+    @Override
+    public boolean setVote(int id, double voteAverage, int voteCount) {
+        MetaData movie = dataTable.get(id);
+        if (movie == null) {
+            return false;
+        }
+        movie.setVoteAvg(voteAverage);
+        movie.setVoteCount(voteCount);
+        return true;
+    }
+
+    @Override
+    public double getVoteAverage(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getVoteAverage() : -1;
+    }
+
+    @Override
+    public int getVoteCount(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getVoteCount() : -1;
+    }
+
+    @Override
+    public boolean setIMDB(int id, String imdbID) {
+        MetaData movie = dataTable.get(id);
+        return movie != null && movie.setIMDB(imdbID);
+    }
+
+    @Override
+    public String getIMDB(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getIMDB() : null;
+    }
+
+    @Override
+    public boolean setPopularity(int id, double popularity) {
+        MetaData movie = dataTable.get(id);
+        return movie != null && movie.setPopularity(popularity);
+    }
+
+    @Override
+    public double getPopularity(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getPopularity() : -1.0;
+    }
+
+    @Override
+    public boolean addCompany(int id, Company company) {
+        MetaData movie = dataTable.get(id);
+        return movie != null && movie.addCompany(production.intern(company));
+    }
+
+    @Override
+    public boolean addCountry(int id, String country) {
+        MetaData movie = dataTable.get(id);
+        return movie != null && movie.addCountry(production.intern(country));
+    }
+
+    @Override
+    public Company[] getCompanies(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getCompanies().clone() : null;
+    }
+
+    @Override
+    public String[] getCountries(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getCountries().clone() : null;
+    }
+
+    @Override
+    public int getNumCompanies(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getCompanies().length : -1;
+    }
+
+    @Override
+    public Company getCompany(int id, int index) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? elementAt(movie.getCompanies(), index) : null;
+    }
+
+    @Override
+    public int getNumCountries(int id) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? movie.getCountries().length : -1;
+    }
+
+    @Override
+    public String getCountry(int id, int index) {
+        MetaData movie = dataTable.get(id);
+        return movie != null ? elementAt(movie.getCountries(), index) : null;
+    }
+
+    private static <T> T elementAt(T[] array, int index) {
+        return index >= 0 && index < array.length ? array[index] : null;
+    }
+}
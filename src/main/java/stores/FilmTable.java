@@ -0,0 +1,90 @@
+package stores;
+
+import java.time.LocalDate;
+
+// Storage for the metadata of every film in a Movies store, keyed by film ID.
+// FilmRows keeps one MetaData object per film, FilmColumns keeps each field in
+// its own array. Lookups for a film that is not stored return the same values
+// as the matching IMovies getter: null, -1, false, or -1.0 for popularity.
+public interface FilmTable {
+
+    boolean contains(int id);
+
+    // Stores a film. Returns false if a film with the ID is already stored
+    boolean add(int id, String title, String originalTitle, String overview, String tagline, String status, Genre[] genres, LocalDate release, long budget, long revenue, String[] languages, String originalLanguage, double runtime, String homepage, boolean adult, boolean video, String poster);
+
+    boolean remove(int id);
+
+    // Returns the ID of every stored film
+    int[] ids();
+
+    int size();
+
+    String getTitle(int id);
+
+    String getOriginalTitle(int id);
+
+    String getOverview(int id);
+
+    String getTagline(int id);
+
+    String getStatus(int id);
+
+    Genre[] getGenres(int id);
+
+    LocalDate getRelease(int id);
+
+    long getBudget(int id);
+
+    long getRevenue(int id);
+
+    String[] getLanguages(int id);
+
+    String getOriginalLanguage(int id);
+
+    double getRuntime(int id);
+
+    String getHomepage(int id);
+
+    boolean getAdult(int id);
+
+    boolean getVideo(int id);
+
+    String getPoster(int id);
+
+    boolean setVote(int id, double voteAverage, int voteCount);
+
+    double getVoteAverage(int id);
+
+    int getVoteCount(int id);
+
+    boolean setIMDB(int id, String imdbID);
+
+    String getIMDB(int id);
+
+    boolean setPopularity(int id, double popularity);
+
+    double getPopularity(int id);
+
+    boolean addCompany(int id, Company company);
+
+    boolean addCountry(int id, String country);
+
+    // Returns a new array of the film's production companies, in the order they were added
+    Company[] getCompanies(int id);
+
+    // Returns a new array of the film's production countries, in the order they were added
+    String[] getCountries(int id);
+
+    // Number of production companies of the film, or -1 if it is not stored
+    int getNumCompanies(int id);
+
+    // Returns the index-th production company of the film without copying, or null if there is none
+    Company getCompany(int id, int index);
+
+    // Number of production countries of the film, or -1 if it is not stored
+    int getNumCountries(int id);
+
+    // Returns the index-th production country of the film without copying, or null if there is none
+    String getCountry(int id, int index);
+}
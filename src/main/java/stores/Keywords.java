@@ -2,242 +2,299 @@ package stores;
 
 import interfaces.IKeywords;
 import interfaces.AbstractStores;
-import structures.MyArrayList;
+import structures.IntArrayList;
+import structures.IntIntMap;
+import structures.IntObjectMap;
+import structures.IntPostingList;
+import structures.NameSearchIndex;
+import structures.PrefixIndex;
+import structures.TopKSelector;
 
 public class Keywords implements IKeywords{
     AbstractStores stores;
 
-    MyArrayList<Integer> id;
-    MyArrayList<Keyword[]> keywords;
-    MyArrayList<Keyword> unique;
+    IntObjectMap<IntArrayList> filmKeywords; //Keyword IDs of each film, keyed by film ID
+    IntObjectMap<Keyword> dictionary; //Every distinct keyword, keyed by keyword ID
+    IntIntMap keywordUses; //Number of times each keyword is attached to a film
+    NameSearchIndex keywordNames; //Substring index over the names of the keywords in the dictionary
+    PrefixIndex keywordSuggestions; //Typeahead over keyword names, ranked by how many times they are used
+    IntObjectMap<IntPostingList> keywordFilms; //Sorted IDs of the films carrying each keyword, keyed by keyword ID
 
     Keywords(AbstractStores stores) {
         this.stores = stores;
-        id = new MyArrayList<>();
-        keywords = new MyArrayList<>();
-        unique = new MyArrayList<>();
+        filmKeywords = new IntObjectMap<>();
+        dictionary = new IntObjectMap<>();
+        keywordUses = new IntIntMap();
+        keywordNames = new NameSearchIndex();
+        keywordSuggestions = new PrefixIndex();
+        keywordFilms = new IntObjectMap<>();
     }
 
     @Override
     public boolean add(int filmID, Keyword keyword) {
-        boolean result = true;
-
-        for (int i = 0; i < this.id.size(); i++) {
-            if(this.id.get(i) == filmID) {
-                Keyword[] tmp = new Keyword[keywords.get(i).length + 1];
-                for (int j = 0; j < keywords.get(i).length; j++) {
-                    tmp[j] = keywords.get(i)[j];
-                }
-                tmp[keywords.get(i).length] = keyword;
-                keywords.set(i, tmp);
-                return result;
-            }
-        }
-
-        boolean flag = true;
-        for(int i = 0; i < unique.size(); i++) {
-            if(this.unique.get(i).getID() == keyword.getID()) {
-                flag = false;
-                break;
-            }
-        }
-
-        if (flag) {
-            unique.add(keyword);
-        }
-        
-
-        result &= this.id.add(filmID);
-        Keyword[] tmp = {keyword};
-        result &= keywords.add(tmp);
-        return result;
+        return add(filmID, new Keyword[] {keyword});
     }
 
     @Override
     public boolean add(int id, Keyword[] keywords) {
-        boolean result = true;
-
-        for (int i = 0; i < this.id.size(); i++) {
-            if (this.id.get(i) == id) {
-                Keyword[] tmp = new Keyword[this.keywords.get(i).length + keywords.length];
-                for (int j = 0; j < this.keywords.get(i).length; j++) {
-                    tmp[j] = this.keywords.get(i)[j];
-                }
-                for (int j = 0; j < keywords.length; j++){
-                    tmp[this.keywords.get(i).length+j] = keywords[j];
-                }
-                this.keywords.set(i, tmp);
-                return result;
-            }
+        IntArrayList keywordIDs = filmKeywords.get(id);
+        if (keywordIDs == null) {
+            keywordIDs = new IntArrayList(keywords.length);
+            filmKeywords.add(id, keywordIDs);
         }
 
-        for (int i = 0; i < keywords.length; i++) {
-            boolean flag = true;
-            for (int j = 0; j < unique.size(); j++) {
-                if(this.unique.get(j).getID() == keywords[i].getID()) {
-                    flag = false;
-                    break;
-                }
-            }
-            if(flag){
-                unique.add(keywords[i]);
-            }
+        //Append the IDs to the film's buffer, which only reallocates when it is full
+        for (Keyword keyword : keywords) {
+            keywordIDs.add(keyword.getID());
+            addToDictionary(keyword);
+            addPosting(keyword.getID(), id);
         }
-
-        result &= this.id.add(id);
-        result &= this.keywords.add(keywords);
-        return result;
+        return true;
     }
 
     @Override
     public boolean remove(int id) {
-        int index = this.id.indexOf(id);
-        boolean result = this.id.remove(id);
-        result &= this.keywords.remove(this.keywords.get(index));
-        return result;
+        IntArrayList keywordIDs = filmKeywords.get(id);
+        if (keywordIDs == null) {
+            return false;
+        }
+
+        filmKeywords.remove(id);
+        for (int i = 0; i < keywordIDs.size(); i++) {
+            removeFromDictionary(keywordIDs.get(i));
+            removePosting(keywordIDs.get(i), id);
+        }
+        return true;
     }
 
     @Override
     public boolean removeKeywordFromFilm(int id, int keywordID) {
-        for (int i = 0; i < this.id.size(); i++) {
-            if(this.id.get(i) == id) {
-                int indexToRemove = -1;
-                for (int j = 0; j < this.keywords.get(i).length; j++) {
-                    if(this.keywords.get(i)[j].getID() == keywordID) {
-                        indexToRemove = j;
-                        break;
-                    }
-                }
-                if (indexToRemove >=0) {
-                    Keyword[] tmp = new Keyword[this.keywords.get(i).length-1];
-                    int counter = 0;
-                    for (int j = 0; j < this.keywords.get(i).length; j++) {
-                        if (j == indexToRemove) {
-                            continue;
-                        }
-                        tmp[counter] = this.keywords.get(i)[j];
-                        counter++;
-                    }
-
-                    this.keywords.set(i, tmp);
-                }
-                return true;
+        IntArrayList keywordIDs = filmKeywords.get(id);
+        if (keywordIDs == null) {
+            return false;
+        }
+
+        if (keywordIDs.remove(keywordID)) {
+            removeFromDictionary(keywordID);
+
+            //The film keeps its posting if the keyword was attached more than once
+            if (!keywordIDs.contains(keywordID)) {
+                removePosting(keywordID, id);
             }
         }
-        return false;
+        return true;
     }
 
     @Override
     public int[] getFilmIDs() {
-        int[] result = new int[id.size()];
-        for (int i = 0; i < id.size(); i++) {
-            result[i] = id.get(i);
-        }
-        return result;
+        return filmKeywords.keys();
     }
 
     @Override
     public int[] getKeywordIDs(){
-        int[] uniqueKeyword = new int[unique.size()];
+        return dictionary.keys();
+    }
 
-        for (int i = 0; i < unique.size(); i++) {
-            uniqueKeyword[i] = unique.get(i).getID();
+    @Override
+    public int[] getFilmsWithKeyword(int keywordID) {
+        IntPostingList films = keywordFilms.get(keywordID);
+        if (films == null) {
+            return new int[0];
         }
+        return films.toArray();
+    }
 
-        return uniqueKeyword;
+    /**
+     * Gets the films carrying every one of the given keywords, for example
+     * all films tagged both "heist" and "based on novel"
+     *
+     * @param keywordIDs The keyword IDs every returned film must carry
+     * @return The IDs of the matching films in ascending order. If no keyword
+     *         IDs are given, or no film carries them all, an empty array
+     */
+    @Override
+    public int[] getFilmsWithAllKeywords(int[] keywordIDs) {
+        return getFilmsWithAllKeywords(keywordIDs, new int[0]);
     }
 
+    /**
+     * Gets the films carrying every one of the included keywords and none of
+     * the excluded ones
+     *
+     * @param keywordIDs         The keyword IDs every returned film must carry
+     * @param excludedKeywordIDs The keyword IDs no returned film may carry
+     * @return The IDs of the matching films in ascending order. If no included
+     *         keyword IDs are given, or no film matches, an empty array
+     */
     @Override
-    public int[] getFilmsWithKeyword(int keywordID) {
-        MyArrayList<Integer> tmp = new MyArrayList<>();
-        for (int i = 0; i < this.id.size(); i++) {
-            for (int j = 0; j < this.keywords.get(i).length; j++) {
-                if (keywordID == this.keywords.get(i)[j].getID()) {
-                    tmp.add(this.id.get(i));
-                    break;
-                }
+    public int[] getFilmsWithAllKeywords(int[] keywordIDs, int[] excludedKeywordIDs) {
+        if (keywordIDs.length == 0) {
+            return new int[0];
+        }
+
+        //Gather the posting lists, giving up as soon as one keyword has no films
+        IntPostingList[] postings = new IntPostingList[keywordIDs.length];
+        for (int i = 0; i < keywordIDs.length; i++) {
+            postings[i] = keywordFilms.get(keywordIDs[i]);
+            if (postings[i] == null) {
+                return new int[0];
             }
         }
 
-        int[] result = new int[tmp.size()];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = tmp.get(i);
+        //Start from the shortest list so every intersection gallops through the longer ones
+        int shortest = 0;
+        for (int i = 1; i < postings.length; i++) {
+            if (postings[i].size() < postings[shortest].size()) {
+                shortest = i;
+            }
+        }
+        int[] result = postings[shortest].toArray();
+        for (int i = 0; i < postings.length && result.length > 0; i++) {
+            if (i != shortest) {
+                result = postings[i].intersect(result);
+            }
+        }
+
+        //Drop the films carrying any excluded keyword
+        for (int i = 0; i < excludedKeywordIDs.length && result.length > 0; i++) {
+            IntPostingList excluded = keywordFilms.get(excludedKeywordIDs[i]);
+            if (excluded != null) {
+                result = excluded.subtractFrom(result);
+            }
         }
         return result;
     }
 
+    /**
+     * Gets the films carrying at least one of the given keywords
+     *
+     * @param keywordIDs The keyword IDs to look for
+     * @return The IDs of the matching films in ascending order, each listed
+     *         once. If no film carries any of the keywords, an empty array
+     */
     @Override
-    public Keyword[] getKeywordsForFilm(int id) {
-        int index = this.id.indexOf(id);
-
-        if (index < 0 || index > size()) {
-            return null;
+    public int[] getFilmsWithAnyKeyword(int[] keywordIDs) {
+        int[] result = new int[0];
+        for (int keywordID : keywordIDs) {
+            IntPostingList films = keywordFilms.get(keywordID);
+            if (films != null) {
+                result = films.unionWith(result);
+            }
         }
-        return keywords.get(index);
+        return result;
     }
 
     @Override
-    public Keyword[] getUnique() {
-        Keyword[] uniqueKeyword = new Keyword[unique.size()];
+    public Keyword[] getKeywordsForFilm(int id) {
+        IntArrayList keywordIDs = filmKeywords.get(id);
+        if (keywordIDs == null) {
+            return null;
+        }
 
-        for (int i = 0; i < unique.size(); i++) {
-            uniqueKeyword[i] = unique.get(i);
+        //Build a new array of the film's keywords from the dictionary on each call
+        Keyword[] result = new Keyword[keywordIDs.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = dictionary.get(keywordIDs.get(i));
         }
+        return result;
+    }
 
-        return uniqueKeyword;
+    @Override
+    public Keyword[] getUnique() {
+        return dictionary.values(new Keyword[dictionary.size()]);
     }
 
     @Override
     public int size() {
-        return keywords.size();
+        return filmKeywords.size();
     }
 
     @Override
     public Keyword[] findKeywords(String keyword) {
-        MyArrayList<Keyword> tmpResult = new MyArrayList<>();
-        for (int i = 0; i < keywords.size(); i++) {
-            for (int j = 0; j < keywords.get(i).length; j++) {
-                if (keywords.get(i)[j].getName().contains(keyword)) {
-                    tmpResult.add(keywords.get(i)[j]);
-                }
-            }
+        //Search the dictionary, so each matching keyword is returned once
+        int[] keywordIDs = keywordNames.find(keyword);
+
+        Keyword[] result = new Keyword[keywordIDs.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = dictionary.get(keywordIDs[i]);
         }
 
-        Keyword[] result = new Keyword[tmpResult.size()];
+        return result;
+    }
+    
+
+    @Override
+    public Keyword[] suggestKeywords(String prefix, int numResults) {
+        int[] keywordIDs = keywordSuggestions.suggest(prefix, numResults);
 
+        Keyword[] result = new Keyword[keywordIDs.length];
         for (int i = 0; i < result.length; i++) {
-            result[i] = tmpResult.get(i);
+            result[i] = dictionary.get(keywordIDs[i]);
         }
 
         return result;
     }
-    
 
     @Override
     public int[] getMostKeywordFilms(int numResults) {
-        int[] results = new int[numResults];
-        int[] keywordCount = new int[numResults];
-
-        for (int i = 0; i < id.size(); i++) {
-            int currentID = id.get(i);
-            int currentNumKeywords = keywords.get(i).length;
-            for (int j = 0 ; j < results.length; j++) {
-                if (keywordCount[j] == 0) {
-                    results[j] = currentID;
-                    keywordCount[j] = currentNumKeywords;
-                    break;
-                } else if (keywordCount[j] < currentNumKeywords) {
-                    for (int k = (results.length-1); k > j; k--) {
-                        results[k] = results[k-1];
-                        keywordCount[k] = keywordCount[k-1];
-                    }
-                    results[j] = currentID;
-                    keywordCount[j] = currentNumKeywords;
-                    break;
-                }
-            }
+        TopKSelector topFilms = new TopKSelector(numResults);
+
+        int[] filmIDs = filmKeywords.keys();
+        IntArrayList[] keywordIDs = filmKeywords.values(new IntArrayList[filmIDs.length]);
+        for (int i = 0; i < filmIDs.length; i++) {
+            topFilms.offer(filmIDs[i], keywordIDs[i].size());
         }
 
-        return results;
+        return topFilms.toSortedIDs();
+    }
+
+
+
+    //HELPER METHODS
+
+    // Adds the film to the posting list of the keyword
+    private void addPosting(int keywordID, int filmID) {
+        IntPostingList films = keywordFilms.get(keywordID);
+        if (films == null) {
+            films = new IntPostingList();
+            keywordFilms.add(keywordID, films);
+        }
+        films.add(filmID);
+    }
+
+    // Removes the film from the posting list of the keyword, and the list once it is empty
+    private void removePosting(int keywordID, int filmID) {
+        IntPostingList films = keywordFilms.get(keywordID);
+        if (films != null && films.remove(filmID) && films.isEmpty()) {
+            keywordFilms.remove(keywordID);
+        }
+    }
+
+    // Counts one more use of the keyword, adding it to the dictionary the first time it is seen
+    private void addToDictionary(Keyword keyword) {
+        int uses = keywordUses.increment(keyword.getID(), 1);
+        if (uses == 1) {
+            dictionary.add(keyword.getID(), keyword);
+            keywordNames.add(keyword.getID(), keyword.getName());
+            keywordSuggestions.add(keyword.getID(), keyword.getName(), uses);
+        } else {
+            keywordSuggestions.setScore(keyword.getID(), uses);
+        }
+    }
+
+    // Counts one less use of the keyword, dropping it from the dictionary when no film uses it
+    private void removeFromDictionary(int keywordID) {
+        int uses = keywordUses.increment(keywordID, -1);
+        if (uses <= 0) {
+            keywordUses.remove(keywordID);
+            Keyword keyword = dictionary.get(keywordID);
+            if (keyword != null) {
+                keywordNames.remove(keywordID, keyword.getName());
+            }
+            keywordSuggestions.remove(keywordID);
+            dictionary.remove(keywordID);
+        } else {
+            keywordSuggestions.setScore(keywordID, uses);
+        }
     }
 }
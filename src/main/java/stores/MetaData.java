@@ -1,8 +1,10 @@
 package stores;
-import structures.*;
 import java.time.LocalDate;
+import java.util.Arrays;
 
 public class MetaData {
+    private static final Company[] NO_COMPANIES = new Company[0];
+    private static final String[] NO_COUNTRIES = new String[0];
 
     private int Id;
     private String Title;
@@ -25,8 +27,8 @@ public class MetaData {
     private int VoteCount;
     private String imdb_id;
     private double popularity;
-    private MyArrayList<Company> productionCompanies;
-    private MyArrayList<String> productionCountries;
+    private Company[] productionCompanies; //Exactly sized, as most films have only one or two
+    private String[] productionCountries;
 
     public MetaData(int id, String title, String originalTitle, String overview, String tagline, String status, Genre[] genres, LocalDate release, long budget, long revenue, String[] languages, String originalLanguage, double runtime, String homepage, boolean adult, boolean video, String poster){
         Id = id;
@@ -48,8 +50,8 @@ public class MetaData {
         Poster = poster;
         VoteAverage = 0;
         VoteCount = 0;
-        productionCompanies = new MyArrayList<>();
-        productionCountries = new MyArrayList<>();
+        productionCompanies = NO_COMPANIES;
+        productionCountries = NO_COUNTRIES;
     }
 
     public int getID(){
@@ -136,11 +138,13 @@ public class MetaData {
         return popularity;
     }
 
-    public MyArrayList<Company> getCompanies(){
+    // The array is shared with this object, so callers must not modify it
+    public Company[] getCompanies(){
         return productionCompanies;
     }
 
-    public MyArrayList<String> getCountries(){
+    // The array is shared with this object, so callers must not modify it
+    public String[] getCountries(){
         return productionCountries;
     }
 
@@ -165,12 +169,14 @@ public class MetaData {
     }
 
     public boolean addCompany(Company company){
-        productionCompanies.add(company);
+        productionCompanies = Arrays.copyOf(productionCompanies, productionCompanies.length + 1);
+        productionCompanies[productionCompanies.length - 1] = company;
         return true;
     }
 
     public boolean addCountry(String country){
-        productionCountries.add(country);
+        productionCountries = Arrays.copyOf(productionCountries, productionCountries.length + 1);
+        productionCountries[productionCountries.length - 1] = country;
         return true;
     }
 }
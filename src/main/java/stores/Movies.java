@@ -1,14 +1,20 @@
 package stores; 
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import interfaces.IMovies;
 import structures.*;
 
 public class Movies implements IMovies{
     Stores stores;
-    HashMap<Integer, MetaData> dataTable; //HashMap for moive MetaData
-    HashMap<Integer, Collections> collectionDataTable; //Hashmap for collections
-    HashMap<Integer, Integer> filmToCollection; //HashMap to connect movies and collections
+    FilmTable films; //Metadata of each movie, keyed by film ID
+    IntObjectMap<Collections> collectionDataTable; //Hashmap for collections
+    IntIntMap filmToCollection; //HashMap to connect movies and collections
+    TrigramIndex textIndex; //Trigrams of each movie's title, original title and overview
+    PrefixIndex titleSuggestions; //Typeahead over movie titles, ranked by popularity
+    IntRangeIndex releaseIndex; //Movie IDs ordered by release date
+    IntObjectMap<ProductionGroup> companyGroups; //Films and running totals of each production company, keyed by company ID
+    HashMap<String, ProductionGroup> countryGroups; //Films and running totals of each production country, keyed by ISO 3166 code
     int size;
 
     /**
@@ -18,11 +24,30 @@ public class Movies implements IMovies{
      *               including itself
      */
     public Movies(Stores stores) {
+        this(stores, false);
+    }
+
+    /**
+     * Creates a Movies data store that can hold its movie metadata in columns,
+     * with one array per field, instead of one MetaData object per movie. The
+     * columns take a fraction of the memory and make scans over one field
+     * cache friendly
+     * @param stores   An object storing all the different key stores,
+     *                 including itself
+     * @param columnar TRUE to store the metadata in columns, FALSE to store
+     *                 one MetaData object per movie
+     */
+    public Movies(Stores stores, boolean columnar) {
         //Initialise the data structures
         this.stores = stores;
-        this.dataTable = new HashMap<>();
-        this.collectionDataTable = new HashMap<>();
-        this.filmToCollection = new HashMap<>();
+        this.films = columnar ? new FilmColumns() : new FilmRows();
+        this.collectionDataTable = new IntObjectMap<>();
+        this.filmToCollection = new IntIntMap();
+        this.textIndex = new TrigramIndex();
+        this.titleSuggestions = new PrefixIndex();
+        this.releaseIndex = new IntRangeIndex();
+        this.companyGroups = new IntObjectMap<>();
+        this.countryGroups = new HashMap<>();
         size = 0;
     }
 
@@ -54,11 +79,13 @@ public class Movies implements IMovies{
     @Override
     public boolean add(int id, String title, String originalTitle, String overview, String tagline, String status, Genre[] genres, LocalDate release, long budget, long revenue, String[] languages, String originalLanguage, double runtime, String homepage, boolean adult, boolean video, String poster) {
         
-        //Check if the the movie is already in the hashmap
-        if (!dataTable.containsKey(id)) {
-            //If the movie does not exist in the HashMap, add it and increment size
-            MetaData newMovie = new MetaData(id, title, originalTitle, overview, tagline, status, genres, release, budget, revenue, languages, originalLanguage, runtime, homepage, adult, video, poster);
-            dataTable.add(id, newMovie); 
+        //Add the movie if it is not already stored, then index it and increment size
+        if (films.add(id, title, originalTitle, overview, tagline, status, genres, release, budget, revenue, languages, originalLanguage, runtime, homepage, adult, video, poster)) {
+            textIndex.add(id, title, originalTitle, overview);
+            titleSuggestions.add(id, title, 0.0f);
+            if (release != null) {
+                releaseIndex.add(epochDay(release), id);
+            }
             size++;
             return true; 
         }
@@ -75,9 +102,22 @@ public class Movies implements IMovies{
      */
     @Override
     public boolean remove(int id) {
-        //Remove the movie from the HashMap
-        boolean removed = dataTable.remove(id);
+        //Read the indexed fields before removing the movie, so they can be unindexed
+        String title = films.getTitle(id);
+        String originalTitle = films.getOriginalTitle(id);
+        String overview = films.getOverview(id);
+        LocalDate release = films.getRelease(id);
+        if (films.contains(id)) {
+            removeFromGroups(id);
+            leaveCollection(id);
+        }
+        boolean removed = films.remove(id);
         if(removed){
+            textIndex.remove(id, title, originalTitle, overview);
+            titleSuggestions.remove(id);
+            if (release != null) {
+                releaseIndex.remove(epochDay(release), id);
+            }
             size--; //Decrement size if the movie is removed
         }
         return removed;
@@ -90,16 +130,7 @@ public class Movies implements IMovies{
      */
     @Override
     public int[] getAllIDs() {
-        //Convert the HashMap to an array with MetaData objects
-        MetaData[] moviesArray = dataTable.MoviesToArray();
-        int[] ids = new int[moviesArray.length];
-        
-        for (int i = 0; i < moviesArray.length; i++) {
-            //Store the ID of the movie in the ids array
-            ids[i] = moviesArray[i].getID();
-        }
-        
-        return ids;
+        return films.ids();
     }
 
     /**
@@ -113,35 +144,8 @@ public class Movies implements IMovies{
      */
     @Override
     public int[] getAllIDsReleasedInRange(LocalDate start, LocalDate end) {
-
-        //Get all film IDs
-        int[] allIDs = getAllIDs();
-
-        //Create an array list to store film IDs released within the given range
-        MyArrayList<Integer> idsInRange = new MyArrayList<>();
-
-        //Iterate through all movie IDs
-        for (int id : allIDs) {
-
-            //Get movie id from the HashMap
-            MetaData movieData = dataTable.get(id);
-
-            //Check if the id is not null and its release date is within the given range
-            if (movieData != null && movieData.getRelease() != null &&
-                !movieData.getRelease().isEqual(start) && !movieData.getRelease().isEqual(end) &&
-                movieData.getRelease().isAfter(start) && movieData.getRelease().isBefore(end)) {
-                //Add the film ID to the array list
-                idsInRange.add(id);
-            }
-        }
-
-        //Convert the array list to an array
-        int[] idsArrayInRange = new int[idsInRange.size()];
-        for (int i = 0; i < idsInRange.size(); i++) {
-            idsArrayInRange[i] = idsInRange.get(i);
-        }
-
-        return idsArrayInRange;
+        //The release index holds the films in date order, so the range is one contiguous run
+        return releaseIndex.between(start.toEpochDay(), end.toEpochDay());
     }
 
     /**
@@ -153,12 +157,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String getTitle(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getTitle(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getTitle(id);
     }
 
     /**
@@ -171,12 +170,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String getOriginalTitle(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getOriginalTitle(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getOriginalTitle(id);
     }
 
     /**
@@ -188,12 +182,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String getOverview(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getOverview(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getOverview(id);
     }
 
     /**
@@ -205,12 +194,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String getTagline(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getTagline(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getTagline(id);
     }
 
     /**
@@ -222,12 +206,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String getStatus(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getStatus(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getStatus(id);
     }
 
     /**
@@ -239,12 +218,7 @@ public class Movies implements IMovies{
      */
     @Override
     public Genre[] getGenres(int id) {
-        //Get the movie
-        MetaData movie = dataTable.get(id);
-        if (movie != null) {
-            return movie.getGenres(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getGenres(id);
     }
 
     /**
@@ -256,12 +230,7 @@ public class Movies implements IMovies{
      */
     @Override
     public LocalDate getRelease(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getRelease(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getRelease(id);
     }
 
     /**
@@ -273,12 +242,7 @@ public class Movies implements IMovies{
      */
     @Override
     public long getBudget(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getBudget(); //If the movie is not null return what is requested
-        }
-        return -1;
+        return films.getBudget(id);
     }
 
     /**
@@ -290,12 +254,7 @@ public class Movies implements IMovies{
      */
     @Override
     public long getRevenue(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getRevenue(); //If the movie is not null return what is requested
-        }
-        return -1;
+        return films.getRevenue(id);
     }
 
     /**
@@ -307,12 +266,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String[] getLanguages(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getLanguages(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getLanguages(id);
     }
 
     /**
@@ -325,12 +279,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String getOriginalLanguage(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getOriginalLanguage(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getOriginalLanguage(id);
     }
 
     /**
@@ -342,12 +291,7 @@ public class Movies implements IMovies{
      */
     @Override
     public double getRuntime(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getRuntime(); //If the movie is not null return what is requested
-        }
-        return -1;
+        return films.getRuntime(id);
     }
 
     /**
@@ -359,12 +303,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String getHomepage(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getHomepage(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getHomepage(id);
     }
 
     /**
@@ -377,12 +316,7 @@ public class Movies implements IMovies{
      */
     @Override
     public boolean getAdult(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getAdult(); //If the movie is not null return what is requested
-        }
-        return false;
+        return films.getAdult(id);
     }
 
     /**
@@ -395,12 +329,7 @@ public class Movies implements IMovies{
      */
     @Override
     public boolean getVideo(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getVideo(); //If the movie is not null return what is requested
-        }
-        return false;
+        return films.getVideo(id);
     }
 
     /**
@@ -412,12 +341,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String getPoster(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getPoster(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getPoster(id);
     }
 
     /**
@@ -432,12 +356,13 @@ public class Movies implements IMovies{
      */
     @Override
     public boolean setVote(int id, double voteAverage, int voteCount) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            //If the movie is not null set what is requested and return true
-            NewMovie.setVoteAvg(voteAverage);
-            NewMovie.setVoteCount(voteCount);
+        //Read the old votes first, so the totals of the film's companies and countries can be updated
+        double oldAverage = films.getVoteAverage(id);
+        int oldCount = films.getVoteCount(id);
+        if (films.setVote(id, voteAverage, voteCount)) {
+            for (ProductionGroup group : groupsOf(id)) {
+                group.replaceVote(oldAverage, oldCount, voteAverage, voteCount);
+            }
             return true;
         }
         return false;
@@ -453,12 +378,7 @@ public class Movies implements IMovies{
      */
     @Override
     public double getVoteAverage(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getVoteAverage(); //If the movie is not null return what is requested
-        }
-        return -1;
+        return films.getVoteAverage(id);
     }
 
     /**
@@ -471,12 +391,7 @@ public class Movies implements IMovies{
      */
     @Override
     public int getVoteCount(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getVoteCount(); //If the movie is not null return what is requested
-        }
-        return -1;
+        return films.getVoteCount(id);
     }
 
     /**
@@ -494,17 +409,21 @@ public class Movies implements IMovies{
      */
     @Override
     public boolean addToCollection(int filmID, int collectionID, String collectionName, String collectionPosterPath, String collectionBackdropPath) {
+        if (!films.contains(filmID)) {
+            return false;
+        }
         Collections collection = collectionDataTable.get(collectionID);
-        MetaData newMovie = dataTable.get(filmID);
-        if (newMovie != null) {
-            if (collection == null) {
-                collection = new Collections(collectionID, collectionName, collectionPosterPath, collectionBackdropPath);
-                collectionDataTable.add(collectionID, collection);
-                filmToCollection.add(filmID, collectionID);
-            }
-            return collection.add(newMovie);
+        if (collection == null) {
+            collection = new Collections(collectionID, collectionName, collectionPosterPath, collectionBackdropPath);
+            collectionDataTable.add(collectionID, collection);
         }
-        return false;
+        //A film belongs to one collection, so take it out of any other collection first
+        if (filmToCollection.containsKey(filmID) && filmToCollection.getOrDefault(filmID, -1) != collectionID) {
+            leaveCollection(filmID);
+        }
+        collection.add(filmID);
+        filmToCollection.add(filmID, collectionID);
+        return true;
     }
 
     /**
@@ -517,16 +436,10 @@ public class Movies implements IMovies{
      */
     @Override
     public int[] getFilmsInCollection(int collectionID) {
-        //Get the collection from the HashMap
+        //Get the collection from the HashMap, which keeps its film IDs in order
         Collections collection = collectionDataTable.get(collectionID);
-
         if (collection != null) {
-            //If the collection is not null ad the filmIDs of the movies in the collection to an array with equal size to the collection
-            int[] ids = new int[collection.getSize()];
-            for (int i = 0; i < ids.length; i++) {
-                ids[i] = collection.getFilm(i).getID();
-            }
-            return ids;
+            return collection.getFilms();
         }
         return new int[0];
     }
@@ -591,11 +504,8 @@ public class Movies implements IMovies{
      */
     @Override
     public int getCollectionID(int filmID) {
-        //If the filmToCollection hashmap contains the movie, return the collectionID corresponded to the filmID
-        if (filmToCollection.containsKey(filmID)) {
-            return filmToCollection.get(filmID);
-        } 
-        return -1;
+        //Return the collectionID corresponded to the filmID, or -1 if the movie is not in a collection
+        return filmToCollection.getOrDefault(filmID, -1);
     }
 
     /**
@@ -607,14 +517,7 @@ public class Movies implements IMovies{
      */
     @Override
     public boolean setIMDB(int filmID, String imdbID) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(filmID);
-        if (NewMovie != null) {
-            NewMovie.setIMDB(imdbID); //If the movie is not null set what is requested and return true
-            return true;
-        }
-
-        return false;
+        return films.setIMDB(filmID, imdbID);
     }
 
     /**
@@ -626,12 +529,7 @@ public class Movies implements IMovies{
      */
     @Override
     public String getIMDB(int filmID) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(filmID);
-        if (NewMovie != null) {
-            return NewMovie.getIMDB(); //If the movie is not null return what is requested
-        }
-        return null;
+        return films.getIMDB(filmID);
     }
 
     /**
@@ -643,15 +541,12 @@ public class Movies implements IMovies{
      */
     @Override
     public boolean setPopularity(int id, double popularity) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            NewMovie.setPopularity(popularity); //If the movie is not null set what is requested and return true
+        //If the movie exists set what is requested and rerank its title suggestion
+        if (films.setPopularity(id, popularity)) {
+            titleSuggestions.setScore(id, (float) popularity);
             return true;
         }
-
         return false;
-        
     }
 
     /**
@@ -663,12 +558,7 @@ public class Movies implements IMovies{
      */
     @Override
     public double getPopularity(int id) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            return NewMovie.getPopularity(); //If the movie is not null return what is requested
-        }
-        return -1.0;
+        return films.getPopularity(id);
     }
 
     /**
@@ -681,14 +571,19 @@ public class Movies implements IMovies{
      */
     @Override
     public boolean addProductionCompany(int id, Company company) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            //If the movie is not null add the company to the corresponding film id in the hashmap
-            NewMovie.addCompany(company); 
-            return true;
+        if (!films.addCompany(id, company)) {
+            return false;
+        }
+        if (company != null) {
+            //Count the film in the company's totals, creating the group for a new company
+            ProductionGroup group = companyGroups.get(company.getID());
+            if (group == null) {
+                group = new ProductionGroup();
+                companyGroups.add(company.getID(), group);
+            }
+            addToGroup(group, id);
         }
-        return false;
+        return true;
     }
 
     /**
@@ -700,14 +595,19 @@ public class Movies implements IMovies{
      */
     @Override
     public boolean addProductionCountry(int id, String country) {
-        //Get the movie
-        MetaData NewMovie = dataTable.get(id);
-        if (NewMovie != null) {
-            //If the movie is not null add the country to the corresponding film id in the hashmap
-            NewMovie.addCountry(country);
-            return true;
+        if (!films.addCountry(id, country)) {
+            return false;
+        }
+        if (country != null) {
+            //Count the film in the country's totals, creating the group for a new country
+            ProductionGroup group = countryGroups.get(country);
+            if (group == null) {
+                group = new ProductionGroup();
+                countryGroups.add(country, group);
+            }
+            addToGroup(group, id);
         }
-        return false;
+        return true;
     }
 
     /**
@@ -720,22 +620,7 @@ public class Movies implements IMovies{
      */
     @Override
     public Company[] getProductionCompanies(int id) {
-        //Get the movie
-        MetaData newmovie = dataTable.get(id);
-
-        //Check if the movie exists
-        if(newmovie == null){
-            return null;
-        }
-
-        //Create an array for production countries
-        Company[] companies = new Company[newmovie.getCompanies().size()];
-
-        //Iterate through the countries of the movie and add them to the array
-        for(int i = 0; i < newmovie.getCompanies().size(); i++){
-            companies[i] = newmovie.getCompanies().get(i);
-        }
-        return companies;
+        return films.getCompanies(id);
     }
 
     /**
@@ -748,22 +633,187 @@ public class Movies implements IMovies{
      */
     @Override
     public String[] getProductionCountries(int id) {
-        //Get the movie
-        MetaData newMovie = dataTable.get(id);
+        return films.getCountries(id);
+    }
 
-        //Check if the movie exists
-        if(newMovie == null){
-            return null;
-        }
+    /**
+     * Gets the number of production companies for a given film. Together with
+     * getProductionCompany this reads the companies without copying them
+     * 
+     * @param id The movie ID
+     * @return The number of production companies of the requested film. If the
+     *         film cannot be found, then return -1
+     */
+    @Override
+    public int getNumProductionCompanies(int id) {
+        return films.getNumCompanies(id);
+    }
 
-        //Create an array for production countries
-        String[] countries = new String[newMovie.getCountries().size()];
+    /**
+     * Gets one production company of a given film
+     * 
+     * @param id    The movie ID
+     * @param index The position of the company, from 0 to
+     *              getNumProductionCompanies(id) - 1, in the order they were added
+     * @return The Company at that position. If the film cannot be found, or the
+     *         index is out of range, then return null
+     */
+    @Override
+    public Company getProductionCompany(int id, int index) {
+        return films.getCompany(id, index);
+    }
 
-        //Iterate through the countries of the movie and add them to the array
-        for(int i = 0; i < newMovie.getCountries().size(); i++){
-            countries[i] = newMovie.getCountries().get(i);
-        }
-        return countries;
+    /**
+     * Gets the number of production countries for a given film. Together with
+     * getProductionCountry this reads the countries without copying them
+     * 
+     * @param id The movie ID
+     * @return The number of production countries of the requested film. If the
+     *         film cannot be found, then return -1
+     */
+    @Override
+    public int getNumProductionCountries(int id) {
+        return films.getNumCountries(id);
+    }
+
+    /**
+     * Gets one production country of a given film
+     * 
+     * @param id    The movie ID
+     * @param index The position of the country, from 0 to
+     *              getNumProductionCountries(id) - 1, in the order they were added
+     * @return The ISO 3166 code at that position. If the film cannot be found, or
+     *         the index is out of range, then return null
+     */
+    @Override
+    public String getProductionCountry(int id, int index) {
+        return films.getCountry(id, index);
+    }
+
+    /**
+     * Gets all films made by a given production company
+     * 
+     * @param companyID The company ID
+     * @return An array of the IDs of the films the company produced, in
+     *         ascending order. If the company has no films, an empty array
+     */
+    @Override
+    public int[] getFilmsByCompany(int companyID) {
+        ProductionGroup group = companyGroups.get(companyID);
+        return group != null ? group.getFilms() : new int[0];
+    }
+
+    /**
+     * Gets all films made in a given production country
+     * 
+     * @param country The ISO 3166 code of the country
+     * @return An array of the IDs of the films made in the country, in ascending
+     *         order. If the country has no films, an empty array
+     */
+    @Override
+    public int[] getFilmsByCountry(String country) {
+        ProductionGroup group = countryGroups.get(country);
+        return group != null ? group.getFilms() : new int[0];
+    }
+
+    /**
+     * Gets the number of films made by a given production company
+     * 
+     * @param companyID The company ID
+     * @return The number of films the company produced, 0 if it has none
+     */
+    @Override
+    public int getNumFilmsByCompany(int companyID) {
+        ProductionGroup group = companyGroups.get(companyID);
+        return group != null ? group.getNumFilms() : 0;
+    }
+
+    /**
+     * Gets the number of films made in a given production country
+     * 
+     * @param country The ISO 3166 code of the country
+     * @return The number of films made in the country, 0 if it has none
+     */
+    @Override
+    public int getNumFilmsByCountry(String country) {
+        ProductionGroup group = countryGroups.get(country);
+        return group != null ? group.getNumFilms() : 0;
+    }
+
+    /**
+     * Gets the total budget of the films made by a given production company
+     * 
+     * @param companyID The company ID
+     * @return The sum of the budgets of the company's films, 0 if it has none
+     */
+    @Override
+    public long getTotalBudgetByCompany(int companyID) {
+        ProductionGroup group = companyGroups.get(companyID);
+        return group != null ? group.getTotalBudget() : 0;
+    }
+
+    /**
+     * Gets the total budget of the films made in a given production country
+     * 
+     * @param country The ISO 3166 code of the country
+     * @return The sum of the budgets of the country's films, 0 if it has none
+     */
+    @Override
+    public long getTotalBudgetByCountry(String country) {
+        ProductionGroup group = countryGroups.get(country);
+        return group != null ? group.getTotalBudget() : 0;
+    }
+
+    /**
+     * Gets the total revenue of the films made by a given production company
+     * 
+     * @param companyID The company ID
+     * @return The sum of the revenues of the company's films, 0 if it has none
+     */
+    @Override
+    public long getTotalRevenueByCompany(int companyID) {
+        ProductionGroup group = companyGroups.get(companyID);
+        return group != null ? group.getTotalRevenue() : 0;
+    }
+
+    /**
+     * Gets the total revenue of the films made in a given production country
+     * 
+     * @param country The ISO 3166 code of the country
+     * @return The sum of the revenues of the country's films, 0 if it has none
+     */
+    @Override
+    public long getTotalRevenueByCountry(String country) {
+        ProductionGroup group = countryGroups.get(country);
+        return group != null ? group.getTotalRevenue() : 0;
+    }
+
+    /**
+     * Gets the average IMDb score of the films made by a given production
+     * company, weighting each film's average by its number of votes
+     * 
+     * @param companyID The company ID
+     * @return The average score across the company's films. If none of its
+     *         films have votes, then return -1
+     */
+    @Override
+    public double getAverageVoteByCompany(int companyID) {
+        ProductionGroup group = companyGroups.get(companyID);
+        return group != null ? group.getAverageVote() : -1;
+    }
+
+    /**
+     * Gets the average IMDb score of the films made in a given production
+     * country, weighting each film's average by its number of votes
+     * 
+     * @param country The ISO 3166 code of the country
+     * @return The average score across the country's films. If none of its
+     *         films have votes, then return -1
+     */
+    @Override
+    public double getAverageVoteByCountry(String country) {
+        ProductionGroup group = countryGroups.get(country);
+        return group != null ? group.getAverageVote() : -1;
     }
 
     /**
@@ -787,22 +837,22 @@ public class Movies implements IMovies{
      */
     @Override
     public int[] findFilms(String searchTerm) {
-        //Get all the movie IDs
-        int[] allIDs = getAllIDs();
+        //Narrow the search to movies holding every trigram of the term, or check
+        //every movie when the term is too short to have any
+        int[] candidateIDs = TrigramIndex.canNarrow(searchTerm)
+                ? textIndex.candidates(searchTerm)
+                : films.ids();
 
         //Create an array list to store the IDs of the movies found
         MyArrayList<Integer> foundIDs = new MyArrayList<>();
 
-        //Iterate through all IDs
-        for (int id : allIDs) {
-
-            //Get movie
-            MetaData movieData = dataTable.get(id);
+        //Iterate through the candidate IDs
+        for (int id : candidateIDs) {
 
             //Check if the search term exists in the title, original title, or overview
-            if (movieData.getTitle().contains(searchTerm) ||
-                movieData.getOriginalTitle().contains(searchTerm) ||
-                movieData.getOverview().contains(searchTerm)) {
+            if (contains(films.getTitle(id), searchTerm) ||
+                contains(films.getOriginalTitle(id), searchTerm) ||
+                contains(films.getOverview(id), searchTerm)) {
 
                 // Add the film ID to the list if the search term is found
                 foundIDs.add(id);
@@ -817,4 +867,97 @@ public class Movies implements IMovies{
 
         return foundIDsArray;
     }
+
+    /**
+     * Suggests films for a search box as the user types. A film matches when a
+     * word of its title starts with the prefix, ignoring case
+     * 
+     * @param prefix     What the user has typed so far
+     * @param numResults The maximum number of films to return (at most
+     *                   PrefixIndex.DEFAULT_SUGGESTIONS)
+     * @return The IDs of the matching films, most popular first. If no film
+     *         matches, an empty array
+     */
+    @Override
+    public int[] suggestFilms(String prefix, int numResults) {
+        return titleSuggestions.suggest(prefix, numResults);
+    }
+
+    // Takes a film out of its collection, dropping the collection if no films are left in it
+    private void leaveCollection(int filmID) {
+        if (!filmToCollection.containsKey(filmID)) {
+            return;
+        }
+        int collectionID = filmToCollection.getOrDefault(filmID, -1);
+        filmToCollection.remove(filmID);
+        Collections collection = collectionDataTable.get(collectionID);
+        if (collection != null && collection.remove(filmID) && collection.getSize() == 0) {
+            collectionDataTable.remove(collectionID);
+        }
+    }
+
+    // Counts a film in a company or country group with its current budget, revenue and votes
+    private void addToGroup(ProductionGroup group, int id) {
+        group.add(id, films.getBudget(id), films.getRevenue(id), films.getVoteAverage(id), films.getVoteCount(id));
+    }
+
+    // Takes a film out of every company and country group, dropping groups left empty
+    private void removeFromGroups(int id) {
+        long budget = films.getBudget(id);
+        long revenue = films.getRevenue(id);
+        double voteAverage = films.getVoteAverage(id);
+        int voteCount = films.getVoteCount(id);
+        for (int i = 0; i < films.getNumCompanies(id); i++) {
+            Company company = films.getCompany(id, i);
+            ProductionGroup group = company != null ? companyGroups.get(company.getID()) : null;
+            if (group != null && group.remove(id, budget, revenue, voteAverage, voteCount) && group.isEmpty()) {
+                companyGroups.remove(company.getID());
+            }
+        }
+        for (int i = 0; i < films.getNumCountries(id); i++) {
+            String country = films.getCountry(id, i);
+            ProductionGroup group = country != null ? countryGroups.get(country) : null;
+            if (group != null && group.remove(id, budget, revenue, voteAverage, voteCount) && group.isEmpty()) {
+                countryGroups.remove(country);
+            }
+        }
+    }
+
+    // Returns the distinct company and country groups a film is counted in
+    private ProductionGroup[] groupsOf(int id) {
+        int numCompanies = films.getNumCompanies(id);
+        int numCountries = films.getNumCountries(id);
+        ProductionGroup[] groups = new ProductionGroup[Math.max(numCompanies, 0) + Math.max(numCountries, 0)];
+        int count = 0;
+        for (int i = 0; i < numCompanies + numCountries; i++) {
+            ProductionGroup group;
+            if (i < numCompanies) {
+                Company company = films.getCompany(id, i);
+                group = company != null ? companyGroups.get(company.getID()) : null;
+            } else {
+                String country = films.getCountry(id, i - numCompanies);
+                group = country != null ? countryGroups.get(country) : null;
+            }
+            //A film can list the same company or country twice, but is counted in its group once
+            boolean seen = group == null;
+            for (int j = 0; j < count && !seen; j++) {
+                seen = groups[j] == group;
+            }
+            if (!seen) {
+                groups[count++] = group;
+            }
+        }
+        return Arrays.copyOf(groups, count);
+    }
+
+    // Days since 1970-01-01, clamped to the range of an int
+    private static int epochDay(LocalDate date) {
+        long day = date.toEpochDay();
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, day));
+    }
+
+    // String.contains that treats a missing field as not matching
+    private static boolean contains(String text, String searchTerm) {
+        return text != null && text.contains(searchTerm);
+    }
 }
@@ -0,0 +1,96 @@
+package stores;
+
+import structures.IntIntMap;
+import structures.IntObjectMap;
+import structures.IntSet;
+import structures.NameSearchIndex;
+import structures.PrefixIndex;
+
+// The distinct people credited across every film in a Credits store, keyed by
+// person ID. Each person keeps a count of the credits that name them, so they
+// are dropped once the last film crediting them is removed. The array of all
+// people is built on first request and copied out until the registry changes, and
+// a name index answers substring searches over everyone registered. A prefix
+// index suggests people for typeahead, ranked by their number of credits.
+public class PersonRegistry {
+    private final IntObjectMap<Person> people = new IntObjectMap<>();
+    private final IntIntMap creditCounts = new IntIntMap();
+    private final IntSet order = new IntSet(); //Registered person IDs. A removal moves the last ID into the freed position
+    private final NameSearchIndex names = new NameSearchIndex();
+    private final PrefixIndex suggestions = new PrefixIndex();
+    private Person[] cached;
+
+    // Records one credit for the person, registering them the first time they are seen
+    public void add(int id, String name, String profilePath) {
+        int credits = creditCounts.increment(id, 1);
+        if (credits == 1) {
+            people.add(id, new Person(id, name, profilePath));
+            order.add(id);
+            names.add(id, name);
+            suggestions.add(id, name, credits);
+            cached = null;
+        } else {
+            suggestions.setScore(id, credits);
+        }
+    }
+
+    // Drops one credit for the person, unregistering them when none are left
+    public void remove(int id) {
+        if (!creditCounts.containsKey(id)) {
+            return;
+        }
+        int credits = creditCounts.increment(id, -1);
+        if (credits == 0) {
+            creditCounts.remove(id);
+            names.remove(id, people.get(id).getName());
+            suggestions.remove(id);
+            people.remove(id);
+            order.remove(id);
+            cached = null;
+        } else {
+            suggestions.setScore(id, credits);
+        }
+    }
+
+    // Returns the person with the given ID, or null if no credit names them
+    public Person get(int id) {
+        return people.get(id);
+    }
+
+    // Returns everyone whose name contains the search term
+    public Person[] find(String searchTerm) {
+        int[] ids = names.find(searchTerm);
+        Person[] result = new Person[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = people.get(ids[i]);
+        }
+        return result;
+    }
+
+    // Returns up to numResults people with a word of their name starting with prefix, most credited first
+    public Person[] suggest(String prefix, int numResults) {
+        int[] ids = suggestions.suggest(prefix, numResults);
+        Person[] result = new Person[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = people.get(ids[i]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return order.size();
+    }
+
+    // Returns every registered person in a new array, copied from the one cached
+    // until the registry changes
+    public Person[] toArray() {
+        if (cached == null) {
+            Person[] result = new Person[order.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = people.get(order.get(i));
+            }
+            cached = result;
+        }
+        return cached.clone();
+    }
+}
@@ -0,0 +1,41 @@
+package stores;
+
+import java.util.Objects;
+
+import structures.HashMap;
+import structures.IntObjectMap;
+
+// The production companies and countries shared by the films of a Movies
+// store. The same company or country code is named by thousands of films, so
+// each film keeps a reference to one shared copy rather than its own object.
+public class ProductionDictionary {
+    private final IntObjectMap<Company> companies = new IntObjectMap<>(); //Shared copy of each company, keyed by company ID
+    private final HashMap<String, String> countries = new HashMap<>(); //Shared copy of each country code
+
+    // Returns the shared copy of company, making company the shared copy if it is the first
+    // seen with its ID. A company whose name differs from the shared copy is kept as it is
+    public Company intern(Company company) {
+        if (company == null) {
+            return null;
+        }
+        Company shared = companies.get(company.getID());
+        if (shared == null) {
+            companies.add(company.getID(), company);
+            return company;
+        }
+        return Objects.equals(shared.getName(), company.getName()) ? shared : company;
+    }
+
+    // Returns the shared copy of the country code
+    public String intern(String country) {
+        if (country == null) {
+            return null;
+        }
+        String shared = countries.get(country);
+        if (shared == null) {
+            countries.add(country, country);
+            return country;
+        }
+        return shared;
+    }
+}
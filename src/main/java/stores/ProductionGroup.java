@@ -0,0 +1,74 @@
+package stores;
+
+import structures.IntPostingList;
+
+// The films of one production company or one production country, with running
+// totals of their budgets, revenues and votes, so the aggregates can be read
+// without going back over the films themselves. The average vote weighs each
+// film's average by its number of votes.
+public class ProductionGroup {
+    private final IntPostingList films = new IntPostingList();
+    private long totalBudget;
+    private long totalRevenue;
+    private double voteSum; //Sum of each film's vote average times its vote count
+    private long voteCount;
+
+    // Adds a film to the group. Returns false if it is already in the group
+    public boolean add(int filmID, long budget, long revenue, double voteAverage, int votes) {
+        if (!films.add(filmID)) {
+            return false;
+        }
+        totalBudget += budget;
+        totalRevenue += revenue;
+        voteSum += voteAverage * votes;
+        voteCount += votes;
+        return true;
+    }
+
+    // Removes a film, which must be passed the values it is counted in the group with
+    public boolean remove(int filmID, long budget, long revenue, double voteAverage, int votes) {
+        if (!films.remove(filmID)) {
+            return false;
+        }
+        totalBudget -= budget;
+        totalRevenue -= revenue;
+        voteSum -= voteAverage * votes;
+        voteCount -= votes;
+        return true;
+    }
+
+    // Swaps the votes a film in the group is counted with
+    public void replaceVote(double oldAverage, int oldVotes, double newAverage, int newVotes) {
+        voteSum += newAverage * newVotes - oldAverage * oldVotes;
+        voteCount += newVotes - (long) oldVotes;
+    }
+
+    public boolean isEmpty() {
+        return films.isEmpty();
+    }
+
+    public int getNumFilms() {
+        return films.size();
+    }
+
+    // Returns the IDs of the films in the group, in ascending order
+    public int[] getFilms() {
+        return films.toArray();
+    }
+
+    public long getTotalBudget() {
+        return totalBudget;
+    }
+
+    public long getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    // Average vote across the films, weighted by their vote counts, or -1 if none have votes
+    public double getAverageVote() {
+        if (voteCount <= 0) {
+            return -1;
+        }
+        return voteSum / voteCount;
+    }
+}
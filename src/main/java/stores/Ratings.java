@@ -6,7 +6,11 @@ import structures.*;
 
 public class Ratings implements IRatings {
     Stores stores;
-    HashMap<Integer, RatingsMetaData> RatingsDataTable; //HashMap for Ratings Data
+    LongObjectMap<RatingsMetaData> RatingsDataTable; //HashMap for Ratings Data, keyed by user and movie ID
+    IntObjectMap<MyArrayList<RatingsMetaData>> movieRatings; //Ratings of each movie, keyed by movie ID
+    IntObjectMap<MyArrayList<RatingsMetaData>> userRatings; //Ratings made by each user, keyed by user ID
+    IntObjectMap<RatingsAggregate> movieAggregates; //Running rating totals of each movie
+    IntObjectMap<RatingsAggregate> userAggregates; //Running rating totals of each user
     int size;
 
     /**
@@ -18,7 +22,11 @@ public class Ratings implements IRatings {
     public Ratings(Stores stores) {
         //Initialize the data structure
         this.stores = stores;
-        this.RatingsDataTable = new HashMap<>();
+        this.RatingsDataTable = new LongObjectMap<>();
+        this.movieRatings = new IntObjectMap<>();
+        this.userRatings = new IntObjectMap<>();
+        this.movieAggregates = new IntObjectMap<>();
+        this.userAggregates = new IntObjectMap<>();
         this.size = 0;
     }
 
@@ -36,13 +44,18 @@ public class Ratings implements IRatings {
     @Override
     public boolean add(int userID, int movieID, float rating, LocalDateTime timestamp) {
         //Generatate a unique key from the user ID and the movie ID
-        int uniqueKey = generateKey(userID, movieID);
+        long uniqueKey = generateKey(userID, movieID);
 
         //Check if the rating is already in the HashMap
         if (!RatingsDataTable.containsKey(uniqueKey)) {
 
-            //If not, add the rating with the uniqueKey as key and increment size
-            RatingsDataTable.add(uniqueKey, new RatingsMetaData(userID, movieID, rating, timestamp));
+            //If not, add the rating with the uniqueKey as key, index it by movie and user, and increment size
+            RatingsMetaData newRating = new RatingsMetaData(userID, movieID, rating, timestamp);
+            RatingsDataTable.add(uniqueKey, newRating);
+            newRating.movieSlot = addPosting(movieRatings, movieID, newRating);
+            newRating.userSlot = addPosting(userRatings, userID, newRating);
+            addToAggregate(movieAggregates, movieID, rating);
+            addToAggregate(userAggregates, userID, rating);
             size++;
             return true;
         }
@@ -62,11 +75,22 @@ public class Ratings implements IRatings {
     public boolean remove(int userID, int movieID) {
 
         //Genreate the unique key from the user ID and movie ID
-        int uniqueKey = generateKey(userID, movieID);
+        long uniqueKey = generateKey(userID, movieID);
 
-        //If the HashMap contains the key, remove the rating from the HashMap and decrement size
-        if (RatingsDataTable.containsKey(uniqueKey)) {
+        //If the HashMap contains the key, remove the rating from the HashMap and both indexes and decrement size
+        RatingsMetaData oldRating = RatingsDataTable.get(uniqueKey);
+        if (oldRating != null) {
             RatingsDataTable.remove(uniqueKey);
+            RatingsMetaData moved = removePosting(movieRatings, movieID, oldRating.movieSlot);
+            if (moved != null) {
+                moved.movieSlot = oldRating.movieSlot;
+            }
+            moved = removePosting(userRatings, userID, oldRating.userSlot);
+            if (moved != null) {
+                moved.userSlot = oldRating.userSlot;
+            }
+            removeFromAggregate(movieAggregates, movieID, oldRating.getRating());
+            removeFromAggregate(userAggregates, userID, oldRating.getRating());
             size--;
             return true;
         }
@@ -91,12 +115,19 @@ public class Ratings implements IRatings {
     public boolean set(int userID, int movieID, float rating, LocalDateTime timestamp) {
 
         //Genreate the unique key from the user ID and movie ID
-        int uniqueKey = generateKey(userID, movieID);
+        long uniqueKey = generateKey(userID, movieID);
 
-        //Overwrite if rating exists, or add new rating
-        RatingsDataTable.add(uniqueKey, new RatingsMetaData(userID, movieID, rating, timestamp)); 
+        //Overwrite if rating exists, the indexes hold the same object so they see the new value
+        RatingsMetaData oldRating = RatingsDataTable.get(uniqueKey);
+        if (oldRating != null) {
+            //Swap the old value for the new one in the running totals
+            movieAggregates.get(movieID).replace(oldRating.getRating(), rating);
+            userAggregates.get(userID).replace(oldRating.getRating(), rating);
+            return oldRating.set(rating, timestamp);
+        }
 
-        return true;
+        //Or add new rating
+        return add(userID, movieID, rating, timestamp);
         
     }
 
@@ -109,42 +140,8 @@ public class Ratings implements IRatings {
      */
     @Override
     public float[] getMovieRatings(int movieID) {
-
-        //Create an Array List for movie ratings and a Set for user IDs
-        MyArrayList<Float> ratingsList = new MyArrayList<>();
-        Set0<Integer> addedUserIDs = new Set0<>();
-
-        //Iterate through the entries in the hash map
-        for (int i = 0; i < RatingsDataTable.table.length; i++) {
-            KeyValuePairLinkedList<Integer, RatingsMetaData> linkedList = RatingsDataTable.table[i];
-            ListElement<KeyValuePair<Integer, RatingsMetaData>> current = linkedList.getHead();
-
-            //Traverse the linked list in the current bucket
-            while (current != null) {
-                RatingsMetaData ratingData = current.getValue().getValue();
-
-                //Check if the movie IDs match
-                if (ratingData.getMovieID() == movieID) {
-
-                    int userID = ratingData.getID();
-
-                    //Check if this user's rating is already added for the movie
-                    if (!addedUserIDs.contains(userID)) {
-                        ratingsList.add(ratingData.getRating());
-                        addedUserIDs.add(userID);
-                    }
-                }
-                current = current.getNext();
-            }
-    }
-
-    //Convert the Array List to a float array
-    float[] ratingsArray = new float[ratingsList.size()];
-    for (int i = 0; i < ratingsList.size(); i++) {
-        ratingsArray[i] = ratingsList.get(i);
-    }
-
-    return ratingsArray;
+        //Get the ratings of the movie from the movie index
+        return toRatingsArray(movieRatings.get(movieID));
     }
 
     /**
@@ -156,26 +153,8 @@ public class Ratings implements IRatings {
      */
     @Override
     public float[] getUserRatings(int userid) {
-        
-        //Create an Array List for users
-        MyArrayList<Float> userList = new MyArrayList<>();
-
-        //Iterate through the ratings array and collect ratings for the given user ID
-        for (RatingsMetaData rating : RatingsDataTable.RatingsToArray()) { //Turn the HashMap into an array
-
-            //If the user IDs match, add it to the Array List
-            if (rating.getID() == userid) {
-                userList.add(rating.getRating());
-            }
-        }
-
-        //Convert the array list to a float array
-        float[] ratingsArray = new float[userList.size()];
-        for (int i = 0; i < userList.size(); i++) {
-            ratingsArray[i] = userList.get(i);
-        }
-
-        return ratingsArray;
+        //Get the ratings of the user from the user index
+        return toRatingsArray(userRatings.get(userid));
     }
 
     /**
@@ -188,23 +167,16 @@ public class Ratings implements IRatings {
      */
     @Override
     public float getMovieAverageRating(int movieID) {
-        //Get all ratings for the movie
-        float[] ratings = getMovieRatings(movieID);
+        //Read the average from the running totals of the movie
+        RatingsAggregate aggregate = movieAggregates.get(movieID);
 
         //Check if there are any ratings for the movie
-        if (ratings.length == 0) {
+        if (aggregate == null) {
             // If no ratings found, return -1.0f
             return -1.0f;
         }
 
-        // Calculate the sum of ratings
-        float sum = 0.0f;
-        for (float rating : ratings) {
-            sum += rating;
-        }
-
-        //Calculate the average rating
-        return sum / ratings.length;
+        return aggregate.getAverage();
     }
 
     /**
@@ -216,33 +188,45 @@ public class Ratings implements IRatings {
      */
     @Override
     public float getUserAverageRating(int userid) {
+        //Read the average from the running totals of the user
+        RatingsAggregate aggregate = userAggregates.get(userid);
 
-        //Turn the HashMap into a RatingsMetaData array
-        RatingsMetaData[] allRatings = RatingsDataTable.RatingsToArray();
-
-        //variables for sum and number of ratings
-        float sum = 0;
-        int count = 0;
+        //If the user has no ratings, return -1
+        if (aggregate == null) {
+            return -1;
+        }
 
-        //Iterate over each rating
-        for (RatingsMetaData rating : allRatings) {
+        return aggregate.getAverage();
+    }
 
-            //Check if the rating belongs to the specified user
-            if (rating.getID() == userid) {
-                sum += rating.getRating(); //Add the rating to the sum
-                count++; // Increment the count of ratings
-            }
+    /**
+     * Get the variance of the ratings for a given film
+     * 
+     * @param movieID The movie ID
+     * @return The population variance of the ratings given to the film. If the
+     *         film has no ratings, return -1.0f
+     */
+    public float getMovieRatingVariance(int movieID) {
+        RatingsAggregate aggregate = movieAggregates.get(movieID);
+        if (aggregate == null) {
+            return -1.0f;
         }
-
-        //Check if the user has at least one rating
-        if (count > 0) {
-            //Calculate the average rating
-            float averageRating = sum / count;
-            return averageRating;
-        } else {
-            //If the user has no ratings, return -1
-            return -1;
+        return aggregate.getVariance();
     }
+
+    /**
+     * Get the variance of the ratings made by a given user
+     * 
+     * @param userID The user ID
+     * @return The population variance of the ratings the user has made. If the
+     *         user has no ratings, return -1.0f
+     */
+    public float getUserRatingVariance(int userID) {
+        RatingsAggregate aggregate = userAggregates.get(userID);
+        if (aggregate == null) {
+            return -1.0f;
+        }
+        return aggregate.getVariance();
     }
 
     /**
@@ -256,40 +240,8 @@ public class Ratings implements IRatings {
     @Override
     public int[] getMostRatedMovies(int num) {
 
-        // Find the maximum movie ID from the ratings data
-        int maxMovieID = 0;
-
-        //Iterate through the ratings in the HashMap
-        for (RatingsMetaData rating : RatingsDataTable.RatingsToArray()) { //Turn the HashMap into an array
-            int movieID = rating.getMovieID();
-            if (movieID > maxMovieID) {
-                maxMovieID = movieID;
-            }
-        }
-
-        //Create an array to store the number of ratings for each movie
-        int[] movieRatingsCount = new int[maxMovieID + 1];
-
-        //Count the number of ratings for each movie
-        for (RatingsMetaData rating : RatingsDataTable.RatingsToArray()) {
-            int movieID = rating.getMovieID();
-            movieRatingsCount[movieID]++;
-        }
-
-        //Sort movie IDs based on the number of ratings using merge sort
-        int[] sortedMovieIds = new int[maxMovieID + 1];
-        for (int i = 0; i <= maxMovieID; i++) {
-            sortedMovieIds[i] = i;
-        }
-
-        //Merge sort
-        mergeSort1(sortedMovieIds, movieRatingsCount, 0, maxMovieID);
-
-        //Get the top N movie IDs
-        int[] topRatedMovies = new int[Math.min(num, maxMovieID + 1)];
-        System.arraycopy(sortedMovieIds, 0, topRatedMovies, 0, topRatedMovies.length);
-
-        return topRatedMovies;
+        //Rank the movies by how many ratings their running totals hold
+        return topByCount(movieAggregates, num);
     }
 
     /**
@@ -302,40 +254,8 @@ public class Ratings implements IRatings {
      */
     @Override
     public int[] getMostRatedUsers(int num) {
-        //Find the maximum user ID from the ratings data
-        int maxUserID = 0;
-
-        //Iterate through the ratings in the HashMap
-        for (RatingsMetaData rating : RatingsDataTable.RatingsToArray()) { //Turn the HashMap into an array
-            int userID = rating.getID();
-            if (userID > maxUserID) {
-                maxUserID = userID;
-            }
-        }
-
-        //Create an array to store the number of ratings for each user
-        int[] userRatingsCount = new int[maxUserID + 1];
-
-        //Count the number of ratings for each user
-        for (RatingsMetaData rating : RatingsDataTable.RatingsToArray()) {
-            int userID = rating.getID();
-            userRatingsCount[userID]++;
-        }
-
-        //Sort user IDs based on the number of ratings using merge sort
-        int[] sortedUserIds = new int[maxUserID + 1];
-        for (int i = 0; i <= maxUserID; i++) {
-            sortedUserIds[i] = i;
-        }
-
-        //Merge sort
-        mergeSort(sortedUserIds, userRatingsCount, 0, maxUserID);
-
-        //Get the top N user IDs
-        int[] topRatedUsers = new int[Math.min(num, maxUserID + 1)];
-        System.arraycopy(sortedUserIds, 0, topRatedUsers, 0, topRatedUsers.length);
-
-        return topRatedUsers;
+        //Rank the users by how many ratings their running totals hold
+        return topByCount(userAggregates, num);
     }
 
     /**
@@ -360,32 +280,15 @@ public class Ratings implements IRatings {
      */
     @Override
     public int getNumRatings(int movieID) {
-        //Initialize a variable to count the number of ratings
-        int count = 0;
-        boolean movieExists = false;
-
-        //Iterate over the buckets in the RatingsDataTable
-        for (int i = 0; i < RatingsDataTable.table.length; i++) {
-
-            //Iterate over the linked list in the current bucket
-            ListElement<KeyValuePair<Integer, RatingsMetaData>> current = RatingsDataTable.table[i].getHead();
-            while (current != null) {
-
-                //Check if the movie ID matches
-                if (current.getValue().getKey() % 1000000 == movieID) {
-                    count++;
-                    movieExists = true;
-                }
-                current = current.getNext();
-            }
-        }
+        //Get the ratings of the movie from the movie index
+        MyArrayList<RatingsMetaData> ratings = movieRatings.get(movieID);
 
         //Return -1 if the movie does not exist
-        if (!movieExists) {
+        if (ratings == null) {
             return -1;
         }
 
-        return count;
+        return ratings.size();
     }
 
     /**
@@ -399,40 +302,17 @@ public class Ratings implements IRatings {
      */
     @Override
     public int[] getTopAverageRatedMovies(int numResults) {
-        //Create a set to store unique movie IDs
-        Set0<Integer> movieIDsSet = new Set0<>();
-
-        //Iterate through the ratings to collect unique movie IDs
-        for (RatingsMetaData rating : RatingsDataTable.RatingsToArray()) { //Turn the HashMap to an array
-            movieIDsSet.add(rating.getMovieID());
-        }
+        //Every rated movie has an entry in the aggregate table
+        int[] movieIDs = movieAggregates.keys();
+        RatingsAggregate[] aggregates = movieAggregates.values(new RatingsAggregate[movieIDs.length]);
 
-        //Convert the set of movie IDs to an array
-        int numMovies = movieIDsSet.size();
-        int[] movieIDs = new int[numMovies];
-        int index = 0;
-        for (int movieID : movieIDsSet) {
-            movieIDs[index++] = movieID;
+        //Keep only the numResults movies with the highest average rating
+        TopKSelector topRated = new TopKSelector(numResults);
+        for (int i = 0; i < movieIDs.length; i++) {
+            topRated.offer(movieIDs[i], aggregates[i].getAverage());
         }
 
-        //Initialize an array to store the average ratings for each movie
-        float[] averageRatings = new float[numMovies];
-
-        //Calculate the average rating for each movie
-        for (int i = 0; i < numMovies; i++) {
-            averageRatings[i] = getMovieAverageRating(movieIDs[i]);
-        }
-
-        //Perform merge sort to sort movie IDs based on average ratings
-        mergeSort2(movieIDs, averageRatings, 0, numMovies - 1);
-
-        //Get the top N movie IDs
-        int[] topRatedMovies = new int[Math.min(numResults, numMovies)];
-        for (int i = 0; i < topRatedMovies.length; i++) {
-            topRatedMovies[i] = movieIDs[i];
-        }
-
-        return topRatedMovies;
+        return topRated.toSortedIDs();
     }
 
 
@@ -440,179 +320,86 @@ public class Ratings implements IRatings {
 
     //HELPER METHODS
 
-    private int generateKey(int userID, int movieID) {
-        return userID * 1000000 + movieID; // Combining userID and movieID to form a unique key
-    }
-
-    // Merge sort algorithm for MostRatedUsers
-    private void mergeSort(int[] arr, int[] ratingsCount, int low, int high) {
-        if (low < high) {
-            int mid = low + (high - low) / 2;
-            mergeSort(arr, ratingsCount, low, mid);
-            mergeSort(arr, ratingsCount, mid + 1, high);
-            merge(arr, ratingsCount, low, mid, high);
-        }
-    }
-
-    // Merge function for merge sort
-    private void merge(int[] arr, int[] ratingsCount, int low, int mid, int high) {
-        int n1 = mid - low + 1;
-        int n2 = high - mid;
-        int[] leftArray = new int[n1];
-        int[] rightArray = new int[n2];
-        int i, j, k;
-
-        // Copy data to temp arrays
-        for (i = 0; i < n1; i++)
-            leftArray[i] = arr[low + i];
-        for (j = 0; j < n2; j++)
-            rightArray[j] = arr[mid + 1 + j];
-
-        // Merge the temp arrays
-        i = 0;
-        j = 0;
-        k = low;
-        while (i < n1 && j < n2) {
-            if (ratingsCount[leftArray[i]] >= ratingsCount[rightArray[j]]) {
-                arr[k] = leftArray[i];
-                i++;
-            } else {
-                arr[k] = rightArray[j];
-                j++;
-            }
-            k++;
-        }
+    // Returns the num IDs in aggregates holding the most ratings, most first
+    private int[] topByCount(IntObjectMap<RatingsAggregate> aggregates, int num) {
+        int[] ids = aggregates.keys();
+        RatingsAggregate[] totals = aggregates.values(new RatingsAggregate[ids.length]);
 
-        // Copy the remaining elements of leftArray[], if any
-        while (i < n1) {
-            arr[k] = leftArray[i];
-            i++;
-            k++;
+        TopKSelector top = new TopKSelector(num);
+        for (int i = 0; i < ids.length; i++) {
+            top.offer(ids[i], totals[i].getCount());
         }
 
-        // Copy the remaining elements of rightArray[], if any
-        while (j < n2) {
-            arr[k] = rightArray[j];
-            j++;
-            k++;
-        }
+        return top.toSortedIDs();
     }
 
-    // Merge sort algorithm for MostRatedMovies
-    private void mergeSort1(int[] arr, int[] ratingsCount, int low, int high) {
-        if (low < high) {
-            int mid = low + (high - low) / 2;
-            mergeSort1(arr, ratingsCount, low, mid);
-            mergeSort1(arr, ratingsCount, mid + 1, high);
-            merge1(arr, ratingsCount, low, mid, high);
+    // Adds a rating to the posting list kept under id in the given index and returns its slot there
+    private int addPosting(IntObjectMap<MyArrayList<RatingsMetaData>> index, int id, RatingsMetaData rating) {
+        MyArrayList<RatingsMetaData> postings = index.get(id);
+        if (postings == null) {
+            postings = new MyArrayList<>(4);
+            index.add(id, postings);
         }
+        postings.add(rating);
+        return postings.size() - 1;
     }
 
-    // Merge function for merge sort
-    private void merge1(int[] arr, int[] ratingsCount, int low, int mid, int high) {
-        int n1 = mid - low + 1;
-        int n2 = high - mid;
-        int[] leftArray = new int[n1];
-        int[] rightArray = new int[n2];
-        int i, j, k;
-
-        // Copy data to temp arrays
-        for (i = 0; i < n1; i++)
-            leftArray[i] = arr[low + i];
-        for (j = 0; j < n2; j++)
-            rightArray[j] = arr[mid + 1 + j];
-
-        // Merge the temp arrays
-        i = 0;
-        j = 0;
-        k = low;
-        while (i < n1 && j < n2) {
-            if (ratingsCount[leftArray[i]] >= ratingsCount[rightArray[j]]) {
-                arr[k] = leftArray[i];
-                i++;
-            } else {
-                arr[k] = rightArray[j];
-                j++;
-            }
-            k++;
+    // Removes the rating at slot from the posting list kept under id by moving the last rating into
+    // its place, and drops the list once it is empty. Returns the moved rating, whose slot the caller
+    // must update, or null if nothing moved
+    private RatingsMetaData removePosting(IntObjectMap<MyArrayList<RatingsMetaData>> index, int id, int slot) {
+        MyArrayList<RatingsMetaData> postings = index.get(id);
+        if (postings == null) {
+            return null;
         }
-
-        // Copy the remaining elements of leftArray[], if any
-        while (i < n1) {
-            arr[k] = leftArray[i];
-            i++;
-            k++;
+        RatingsMetaData last = postings.removeLast();
+        if (postings.isEmpty()) {
+            index.remove(id);
+            return null;
         }
-
-        // Copy the remaining elements of rightArray[], if any
-        while (j < n2) {
-            arr[k] = rightArray[j];
-            j++;
-            k++;
+        if (slot == postings.size()) {
+            return null;
         }
+        postings.set(slot, last);
+        return last;
     }
 
-    // Merge sort algorithm for TopAverageRatedMovies
-    private void mergeSort2(int[] arr, float[] ratings, int low, int high) {
-        if (low < high) {
-            int mid = low + (high - low) / 2;
-            mergeSort2(arr, ratings, low, mid);
-            mergeSort2(arr, ratings, mid + 1, high);
-            merge2(arr, ratings, low, mid, high);
+    // Adds a rating value to the running totals kept under id, creating them if needed
+    private void addToAggregate(IntObjectMap<RatingsAggregate> aggregates, int id, float rating) {
+        RatingsAggregate aggregate = aggregates.get(id);
+        if (aggregate == null) {
+            aggregate = new RatingsAggregate();
+            aggregates.add(id, aggregate);
         }
+        aggregate.add(rating);
     }
 
-    // Merge function for merge sort
-    private void merge2(int[] arr, float[] ratings, int low, int mid, int high) {
-        int n1 = mid - low + 1;
-        int n2 = high - mid;
-        int[] leftArray = new int[n1];
-        int[] rightArray = new int[n2];
-        float[] leftRatings = new float[n1];
-        float[] rightRatings = new float[n2];
-        int i, j, k;
-
-        // Copy data to temp arrays
-        for (i = 0; i < n1; i++) {
-            leftArray[i] = arr[low + i];
-            leftRatings[i] = ratings[low + i];
-        }
-        for (j = 0; j < n2; j++) {
-            rightArray[j] = arr[mid + 1 + j];
-            rightRatings[j] = ratings[mid + 1 + j];
-        }
-
-        // Merge the temp arrays
-        i = 0;
-        j = 0;
-        k = low;
-        while (i < n1 && j < n2) {
-            if (leftRatings[i] >= rightRatings[j]) {
-                arr[k] = leftArray[i];
-                ratings[k] = leftRatings[i];
-                i++;
-            } else {
-                arr[k] = rightArray[j];
-                ratings[k] = rightRatings[j];
-                j++;
+    // Takes a rating value out of the running totals kept under id, dropping them once empty
+    private void removeFromAggregate(IntObjectMap<RatingsAggregate> aggregates, int id, float rating) {
+        RatingsAggregate aggregate = aggregates.get(id);
+        if (aggregate != null) {
+            aggregate.remove(rating);
+            if (aggregate.getCount() == 0) {
+                aggregates.remove(id);
             }
-            k++;
         }
+    }
 
-        // Copy the remaining elements of leftArray[], if any
-        while (i < n1) {
-            arr[k] = leftArray[i];
-            ratings[k] = leftRatings[i];
-            i++;
-            k++;
+    // Copies the rating values out of a posting list (which may be null) into a float array
+    private float[] toRatingsArray(MyArrayList<RatingsMetaData> postings) {
+        if (postings == null) {
+            return new float[0];
         }
-
-        // Copy the remaining elements of rightArray[], if any
-        while (j < n2) {
-            arr[k] = rightArray[j];
-            ratings[k] = rightRatings[j];
-            j++;
-            k++;
+        float[] ratingsArray = new float[postings.size()];
+        for (int i = 0; i < postings.size(); i++) {
+            ratingsArray[i] = postings.get(i).getRating();
         }
+        return ratingsArray;
+    }
+
+    // Packs the user ID into the high 32 bits and the movie ID into the low 32 bits,
+    // so every (user, movie) pair gets its own key whatever the size of the IDs
+    private long generateKey(int userID, int movieID) {
+        return ((long) userID << 32) | (movieID & 0xFFFFFFFFL);
     }
 }
@@ -0,0 +1,52 @@
+package stores;
+
+// Running count, sum and sum of squares of a group of ratings (all ratings of one
+// movie, or all ratings made by one user), so the average and variance can be
+// read without going back over the ratings themselves.
+public class RatingsAggregate {
+    int count;
+    double sum;
+    double sumOfSquares;
+
+    public void add(float rating) {
+        count++;
+        sum += rating;
+        sumOfSquares += (double) rating * rating;
+    }
+
+    public void remove(float rating) {
+        count--;
+        sum -= rating;
+        sumOfSquares -= (double) rating * rating;
+    }
+
+    public void replace(float oldRating, float newRating) {
+        sum += newRating - (double) oldRating;
+        sumOfSquares += (double) newRating * newRating - (double) oldRating * oldRating;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public float getAverage() {
+        if (count == 0) {
+            return -1.0f;
+        }
+        return (float) (sum / count);
+    }
+
+    // Population variance of the ratings, or -1 if there are none
+    public float getVariance() {
+        if (count == 0) {
+            return -1.0f;
+        }
+        double mean = sum / count;
+        //Rounding in the running sums can leave a tiny negative value when all ratings are equal
+        return (float) Math.max(0.0, sumOfSquares / count - mean * mean);
+    }
+}
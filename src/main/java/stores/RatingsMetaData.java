@@ -8,6 +8,8 @@ public class RatingsMetaData {
     int movieID;
     int userID;
     int size;
+    int movieSlot; //Position of this rating in its movie's posting list in Ratings
+    int userSlot; //Position of this rating in its user's posting list in Ratings
 
     public RatingsMetaData(int userID, int movieID, float rating, LocalDateTime timestamp) {
         this.Rating = rating;
@@ -4,9 +4,14 @@ import interfaces.*;
 
 public class Stores extends AbstractStores{
     public Stores(){
+        this(false);
+    }
+
+    // Builds the stores, with the Movies store keeping its metadata in columns when columnarMovies is set
+    public Stores(boolean columnarMovies){
         credits  = new Credits(this);
         keywords = new Keywords(this);
-        movies   = new Movies(this);
+        movies   = new Movies(this, columnarMovies);
         ratings  = new Ratings(this);
     }
 }
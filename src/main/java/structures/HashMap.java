@@ -4,132 +4,156 @@ package structures;
 import stores.MetaData;
 import stores.RatingsMetaData;
 
-@SuppressWarnings("unchecked") 
+/**
+ * Open-addressing hash map using linear probing. Keys and values live in two
+ * parallel arrays whose length is always a power of two, and the table doubles
+ * whenever the number of entries passes the load factor, so probe sequences
+ * stay short however large the map grows. Removal uses backward-shift deletion
+ * instead of tombstones, so lookups never have to skip over dead slots.
+ */
+@SuppressWarnings("unchecked")
 public class HashMap<K extends Comparable<K>,V> implements IMap<K,V> {
 
-    public KeyValuePairLinkedList[] table;
-    
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private Object[] keys;
+    private Object[] values;
+    private final float loadFactor;
+    private int mask;
+    private int threshold;
+    private int size;
+    private final MapStats stats = new MapStats();
+
     public HashMap() {
-        /* for very simple hashing, primes reduce collisions */
-        this(9000);
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
     }
-    
-    public HashMap(int size) {
-        table = new KeyValuePairLinkedList[size];
-        initTable();
+
+    public HashMap(int expectedSize, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / loadFactor)));
     }
 
     public int find(K key) {
-         //returns the number of comparisons required to find element using Linear Search.
-         int hash_code = hash(key);
-         int location = hash_code % table.length;
- 
-         ListElement<KeyValuePair<K,V>> temp = table[location].getHead();
-         int comparisons = 0;
-         while(temp != null) {
-             comparisons++;
-             if(temp.getValue().getKey().equals(key)) {
-                 return comparisons;
-             }
-             
-             temp = temp.getNext();
-         }
-         
-         return comparisons;
-    }
-    
-    protected void initTable() {
-        for(int i = 0; i < table.length; i++) {
-            table[i] = new KeyValuePairLinkedList<>();
+        //returns the number of slots probed to find element (or to prove it is absent)
+        int slot = hash(key) & mask;
+        int comparisons = 0;
+        while (keys[slot] != null) {
+            comparisons++;
+            if (keys[slot].equals(key)) {
+                return comparisons;
+            }
+            slot = (slot + 1) & mask;
         }
+        return comparisons;
     }
-    
+
     protected int hash(K key) {
-        int code = key.hashCode();
-        return Math.abs(code);    
+        //Spread the high bits down so keys that only differ there still land apart
+        int code = key.hashCode() * 0x9E3779B9;
+        return code ^ (code >>> 16);
     }
-    
+
 
     public void add(K key, V value) {
-        int hash_code = hash(key);
-        int location = hash_code % table.length;
-        
-        System.out.println("Adding " + value + " under key " + key + " at location " + location);
-        
-        table[location].add(key,value);
+        int slot = hash(key) & mask;
+        int probes = 1;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                //Key already mapped, overwrite the value
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+            probes++;
+        }
+
+        if (size >= keys.length - 1) {
+            //Probes end at an empty slot, so the table must always keep one free
+            throw new IllegalStateException("HashMap is full: cannot hold more than " + (keys.length - 1) + " entries");
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        stats.recordInsert(probes);
+        if (++size > threshold) {
+            resize(keys.length * 2);
+        }
     }
 
     public V get(K key) {
-        int hash_code = hash(key);
-        int location = hash_code % table.length;
-        
-        KeyValuePair<K,V> ptr = table[location].get(key);
-        
-        if (ptr == null) {
+        int slot = indexOf(key);
+
+        if (slot < 0) {
             return null;
         }
 
-        return (V) ptr.getValue();
+        return (V) values[slot];
     }
 
     public boolean remove(K key) {
-        int hash_code = hash(key);
-        int location = hash_code % table.length;
-        return table[location].remove(key);
-    }
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return false;
+        }
 
-    public boolean containsKey(K key) {
-        int hash_code = hash(key);
-        int location = hash_code % table.length;
-        
-        ListElement<KeyValuePair<K,V>> temp = table[location].getHead();
-        while(temp != null) {
-            if(temp.getValue().getKey().equals(key)) {
-                return true;
+        //Shift later entries of the same probe run back into the gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != null) {
+            int home = hash((K) keys[next]) & mask;
+            //An entry may only move back if the gap lies between its home slot and where it sits now
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
             }
-            temp = temp.getNext();
+            next = (next + 1) & mask;
         }
-        return false;
+        keys[gap] = null;
+        values[gap] = null;
+        size--;
+        return true;
+    }
+
+    public boolean containsKey(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    // Counters for inserts, probe lengths and resizes on this map
+    public MapStats getStats() {
+        return stats;
+    }
+
+    // Installs a listener that is told about every insert and resize, or removes it when null
+    public void setListener(MapListener listener) {
+        stats.setListener(listener);
     }
 
     public boolean isEmpty() {
-        if (table.length == 0) {
-            return true;
-        } else {
-            return false;
-        }
+        return size == 0;
     }
 
     public int size() {
-        int size = 0;
-        for (KeyValuePairLinkedList<K, V> linkedList : table) {
-            size += linkedList.size();
-        }
         return size;
     }
 
     public MetaData[] MoviesToArray() {
-        //Calculate the total number of elements in the map
-        int totalElements = 0;
-        for (KeyValuePairLinkedList<K, V> linkedList : table) {
-            totalElements += linkedList.size();
-        }
-
         //Create an array to hold the MetaData objects
-        MetaData[] dataArray = new MetaData[totalElements];
+        MetaData[] dataArray = new MetaData[size];
 
-        //Traverse each bucket in the hash table
+        //Walk the table, copying every occupied slot
         int index = 0;
-        for (KeyValuePairLinkedList<K, V> linkedList : table) {
-
-            //Iterate through the linked list in the bucket
-            ListElement<KeyValuePair<K, V>> current = linkedList.getHead();
-            while (current != null) {
-                
-                //Add MetaData object to the array
-                dataArray[index] = (MetaData) current.getValue().getValue();
-                current = current.getNext();
-                index++;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                dataArray[index++] = (MetaData) values[i];
             }
         }
 
@@ -137,34 +161,71 @@ public class HashMap<K extends Comparable<K>,V> implements IMap<K,V> {
     }
 
     public RatingsMetaData[] RatingsToArray() {
-        
-        // Calculate the total number of elements in the map
-        int totalElements = 0;
-        for (KeyValuePairLinkedList<K, V> linkedList : table) {
-            totalElements += linkedList.size();
-        }
-
         //Create an array to hold the RatingsMetaData objects
-        RatingsMetaData[] dataArray = new RatingsMetaData[totalElements];
+        RatingsMetaData[] dataArray = new RatingsMetaData[size];
 
-        //Traverse each bucket in the hash table
+        //Walk the table, copying every occupied slot
         int index = 0;
-        for (KeyValuePairLinkedList<K, V> linkedList : table) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                dataArray[index++] = (RatingsMetaData) values[i];
+            }
+        }
 
-            //Iterate through the linked list in the bucket
-            ListElement<KeyValuePair<K, V>> current = linkedList.getHead();
-            while (current != null) {
+        return dataArray;
+    }
 
-                //Add RatingsMetaData object to the array
-                dataArray[index] = (RatingsMetaData) current.getValue().getValue();
-                current = current.getNext();
-                index++;
+    // Returns the slot holding key, or -1 if the key is not in the map
+    private int indexOf(K key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                return slot;
             }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int newCapacity) {
+        if (keys.length >= MAXIMUM_CAPACITY) {
+            //Cannot grow any further, let the table fill up to its last free slot
+            threshold = keys.length - 1;
+            return;
         }
 
-        return dataArray;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        stats.recordResize(oldKeys.length, newCapacity);
+
+        //Rehash every entry into the new table
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = hash((K) oldKeys[i]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
     }
 
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
 
+    // Smallest power of two that is at least n
+    private static int tableSizeFor(int n) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < n && capacity < MAXIMUM_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
 
 }
@@ -0,0 +1,103 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive ints. Appends are amortised O(1) because the
+ * backing array doubles when full, and removals shift the tail down in place,
+ * so neither allocates a new array per call.
+ */
+public class IntArrayList {
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private int[] values;
+    private int size;
+
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntArrayList(int initialCapacity) {
+        values = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    public int set(int index, int value) {
+        checkIndex(index);
+        int replaced = values[index];
+        values[index] = value;
+        return replaced;
+    }
+
+    // Returns the position of the first occurrence of value, or -1 if it is not in the list
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    // Removes the value at index, shifting the later values down. Returns the removed value
+    public int removeAt(int index) {
+        checkIndex(index);
+        int removed = values[index];
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    // Removes the first occurrence of value. Returns true on success, false if it was not found
+    public boolean remove(int value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns a copy of the list
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException("index out of range: " + index + " (size " + size + ")");
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * A sorted list of distinct ints, used as the posting list of an inverted
+ * index (for example, every film ID carrying one keyword). Membership is a
+ * binary search, and adds that arrive in ascending order are appended
+ * without shifting.
+ *
+ * Adds that arrive out of order are held in a hashed set of pending values
+ * and merged into the sorted array by the next read, the same way
+ * IntRangeIndex buffers its adds. Loading IDs in any order therefore costs
+ * O(n log n) rather than one shift of the array per add, and add and remove
+ * still report exactly whether the value was present.
+ *
+ * The set operations take another sorted, duplicate-free array and gallop
+ * through this list for each of its values. When that array is much shorter
+ * than this list, the cost grows with the short array's length times the log
+ * of the gap between matches, not with the length of this list.
+ */
+public class IntPostingList {
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private int[] values;
+    private int size;      //Number of values in the sorted array, not counting pending ones
+    private IntSet pending; //Values added out of order since the last read, or null if there are none
+
+    public IntPostingList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntPostingList(int initialCapacity) {
+        values = new int[Math.max(initialCapacity, 1)];
+    }
+
+    // Adds value, appending it when it is larger than every sorted value and holding it as
+    // pending otherwise. Returns false if it was already present
+    public boolean add(int value) {
+        boolean last = size == 0 || values[size - 1] < value;
+        if (!last && Arrays.binarySearch(values, 0, size, value) >= 0) {
+            return false;
+        }
+        if (pending != null && pending.contains(value)) {
+            return false;
+        }
+        if (!last) {
+            if (pending == null) {
+                pending = new IntSet();
+            }
+            return pending.add(value);
+        }
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+        return true;
+    }
+
+    // Removes value. Returns false if it was not present
+    public boolean remove(int value) {
+        if (pending != null && pending.remove(value)) {
+            return true;
+        }
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0 || (pending != null && pending.contains(value));
+    }
+
+    public int get(int index) {
+        flush();
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException("index out of range: " + index + " (size " + size + ")");
+        }
+        return values[index];
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int size() {
+        return pending == null ? size : size + pending.size();
+    }
+
+    // Returns a copy of the list, in ascending order
+    public int[] toArray() {
+        flush();
+        return Arrays.copyOf(values, size);
+    }
+
+    // Returns the values of sorted that are also in this list
+    public int[] intersect(int[] sorted) {
+        flush();
+        int[] result = new int[Math.min(sorted.length, size)];
+        int count = 0;
+        int cursor = 0;
+        for (int value : sorted) {
+            cursor = gallop(value, cursor);
+            if (cursor == size) {
+                break;
+            }
+            if (values[cursor] == value) {
+                result[count++] = value;
+                cursor++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Returns the values of sorted that are not in this list
+    public int[] subtractFrom(int[] sorted) {
+        flush();
+        int[] result = new int[sorted.length];
+        int count = 0;
+        int cursor = 0;
+        for (int value : sorted) {
+            cursor = gallop(value, cursor);
+            if (cursor < size && values[cursor] == value) {
+                cursor++;
+            } else {
+                result[count++] = value;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Returns the values in either sorted or this list, in ascending order
+    public int[] unionWith(int[] sorted) {
+        flush();
+        int[] result = new int[sorted.length + size];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < sorted.length && j < size) {
+            if (sorted[i] < values[j]) {
+                result[count++] = sorted[i++];
+            } else if (sorted[i] > values[j]) {
+                result[count++] = values[j++];
+            } else {
+                result[count++] = sorted[i++];
+                j++;
+            }
+        }
+        while (i < sorted.length) {
+            result[count++] = sorted[i++];
+        }
+        while (j < size) {
+            result[count++] = values[j++];
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    // Sorts the pending values and merges them into the sorted array, filling it from the back
+    private void flush() {
+        if (pending == null) {
+            return;
+        }
+        int[] added = pending.toArray();
+        pending = null;
+        Arrays.sort(added);
+
+        int total = size + added.length;
+        if (total > values.length) {
+            values = Arrays.copyOf(values, Math.max(total, values.length * 2));
+        }
+        //Pending values are never in the sorted array, so there are no ties
+        int i = size - 1;
+        int j = added.length - 1;
+        int write = total - 1;
+        while (j >= 0) {
+            if (i >= 0 && values[i] > added[j]) {
+                values[write--] = values[i--];
+            } else {
+                values[write--] = added[j--];
+            }
+        }
+        size = total;
+    }
+
+    // Returns the first index at or after from whose value is >= target, or size if there is none.
+    // Steps forward in doubling strides until it passes target, then binary searches the last stride
+    private int gallop(int target, int from) {
+        if (from >= size || values[from] >= target) {
+            return from;
+        }
+
+        //values[low] < target throughout
+        int low = from;
+        int step = 1;
+        int high = from + step;
+        while (high < size && values[high] < target) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        if (high > size) {
+            high = size;
+        }
+
+        //Binary search for the first value >= target in (low, high]
+        while (low + 1 < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < target) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+}
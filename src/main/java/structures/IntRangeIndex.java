@@ -0,0 +1,120 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * IDs ordered by an int key (for example a film's release date as an epoch
+ * day), answering "every ID whose key lies in this range" with two binary
+ * searches plus a copy of the matching run, so a query costs O(log n + k) and
+ * returns the IDs in key order.
+ *
+ * Each (key, id) pair is packed into one long with the key in the high half,
+ * so sorting the longs sorts by key and then by ID. Adds and removes are
+ * buffered and merged into the sorted array on the next query, which keeps a
+ * bulk load at O(n log n) instead of shifting the array on every insert.
+ */
+public class IntRangeIndex {
+
+    private long[] entries = new long[16];
+    private int size;
+
+    private long[] pendingAdds = new long[16];
+    private int pendingAddCount;
+    private long[] pendingRemoves = new long[4];
+    private int pendingRemoveCount;
+
+    public void add(int key, int id) {
+        if (pendingAddCount == pendingAdds.length) {
+            pendingAdds = Arrays.copyOf(pendingAdds, pendingAddCount * 2);
+        }
+        pendingAdds[pendingAddCount++] = pack(key, id);
+    }
+
+    // Removes a pair added earlier. Removing a pair that was never added is not allowed
+    public void remove(int key, int id) {
+        if (pendingRemoveCount == pendingRemoves.length) {
+            pendingRemoves = Arrays.copyOf(pendingRemoves, pendingRemoveCount * 2);
+        }
+        pendingRemoves[pendingRemoveCount++] = pack(key, id);
+    }
+
+    public int size() {
+        return size + pendingAddCount - pendingRemoveCount;
+    }
+
+    // Returns the IDs whose key is strictly between low and high, in key order
+    public int[] between(long low, long high) {
+        flush();
+        if (low >= Integer.MAX_VALUE || high <= Integer.MIN_VALUE || low + 1 >= high) {
+            return new int[0];
+        }
+
+        //First entry with key > low, and first entry with key >= high
+        int from = lowerBound(pack((int) Math.max(low + 1, Integer.MIN_VALUE), 0));
+        int to = high > Integer.MAX_VALUE ? size : lowerBound(pack((int) high, 0));
+
+        int[] result = new int[Math.max(to - from, 0)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) entries[from + i];
+        }
+        return result;
+    }
+
+    // Merges the buffered adds into the sorted entries and drops the buffered removes
+    private void flush() {
+        if (pendingAddCount == 0 && pendingRemoveCount == 0) {
+            return;
+        }
+        Arrays.sort(pendingAdds, 0, pendingAddCount);
+        Arrays.sort(pendingRemoves, 0, pendingRemoveCount);
+
+        long[] merged = new long[Math.max(size + pendingAddCount, 16)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        int r = 0;
+        while (i < size || j < pendingAddCount) {
+            long next;
+            if (j == pendingAddCount || (i < size && entries[i] <= pendingAdds[j])) {
+                next = entries[i++];
+            } else {
+                next = pendingAdds[j++];
+            }
+
+            //Skip removes for pairs that sort before this one, then let a matching remove cancel it
+            while (r < pendingRemoveCount && pendingRemoves[r] < next) {
+                r++;
+            }
+            if (r < pendingRemoveCount && pendingRemoves[r] == next) {
+                r++;
+                continue;
+            }
+            merged[count++] = next;
+        }
+
+        entries = merged;
+        size = count;
+        pendingAddCount = 0;
+        pendingRemoveCount = 0;
+    }
+
+    // Index of the first entry >= target
+    private int lowerBound(long target) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // The key fills the high half, signed, so longs order by key first; the ID fills the low half
+    private static long pack(int key, int id) {
+        return ((long) key << 32) | (id & 0xFFFFFFFFL);
+    }
+}
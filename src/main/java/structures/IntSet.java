@@ -0,0 +1,217 @@
+package structures;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A hashed set of primitive ints, laid out like Set0: the members sit in a
+ * dense int[] and a linear-probing table of positions into it answers add,
+ * contains and remove in constant expected time without boxing.
+ *
+ * Members can be read back by position with get, or walked with an
+ * IntIterator. iterator(cursor) rewinds a cursor the caller owns and points
+ * it at this set, so a caller that keeps its cursor walks without allocating,
+ * and walks with different cursors never disturb each other.
+ */
+public class IntSet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int[] elements;
+    private int[] table; //Position of each element in elements plus one, 0 marks an empty slot
+    private int mask;
+    private int threshold;
+    private int size;
+
+    public IntSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntSet(int expectedSize) {
+        elements = new int[Math.max(expectedSize, 1)];
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR)));
+    }
+
+    // Adds element to the set when it does not already exist.
+    // Returns true on success and false otherwise.
+    public boolean add(int element) {
+        int slot = hash(element) & mask;
+        while (table[slot] != 0) {
+            if (elements[table[slot] - 1] == element) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == elements.length) {
+            int[] tmp = new int[size * 2];
+            System.arraycopy(elements, 0, tmp, 0, size);
+            elements = tmp;
+        }
+        elements[size] = element;
+        table[slot] = ++size;
+
+        if (size > threshold) {
+            resize(table.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(int element) {
+        return slotOf(element) >= 0;
+    }
+
+    // Removes element from the set. Returns true on success, false if it was not found.
+    // The last member moves into the position the removed one held.
+    public boolean remove(int element) {
+        int slot = slotOf(element);
+        if (slot < 0) {
+            return false;
+        }
+        int position = table[slot] - 1;
+        deleteSlot(slot);
+
+        int last = size - 1;
+        if (position != last) {
+            int lastSlot = hash(elements[last]) & mask;
+            while (table[lastSlot] != last + 1) {
+                lastSlot = (lastSlot + 1) & mask;
+            }
+            table[lastSlot] = position + 1;
+            elements[position] = elements[last];
+        }
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        elements = new int[DEFAULT_CAPACITY];
+        allocate(tableSizeFor((int) Math.ceil(DEFAULT_CAPACITY / LOAD_FACTOR)));
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns the member at position index, where 0 <= index < size()
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException("index out of range: " + index + " (size " + size + ")");
+        }
+        return elements[index];
+    }
+
+    // Returns a copy of the members, in the same order as get
+    public int[] toArray() {
+        int[] result = new int[size];
+        System.arraycopy(elements, 0, result, 0, size);
+        return result;
+    }
+
+    // Returns a new iterator over the members, in the same order as get
+    public IntIterator iterator() {
+        return iterator(new IntIterator());
+    }
+
+    // Rewinds cursor to the first member of this set and returns it. The cursor may have walked
+    // this or another IntSet before
+    public IntIterator iterator(IntIterator cursor) {
+        cursor.set = this;
+        cursor.currentIndex = 0;
+        return cursor;
+    }
+
+    public String toString() {
+        if (isEmpty()) {
+            return "[]";
+        }
+        StringBuilder ret = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            ret.append(elements[i]).append(", ");
+        }
+        ret.setLength(ret.length() - 2);
+        return ret.append(']').toString();
+    }
+
+    /**
+     * Walks the members of an IntSet as primitive ints. A new cursor is empty
+     * until it is passed to IntSet.iterator(cursor).
+     */
+    public static class IntIterator {
+        private IntSet set;
+        private int currentIndex = 0;
+
+        public boolean hasNext() {
+            return set != null && currentIndex < set.size;
+        }
+
+        public int next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return set.elements[currentIndex++];
+        }
+    }
+
+    private static int hash(int element) {
+        int code = element * 0x9E3779B9;
+        return code ^ (code >>> 16);
+    }
+
+    // Returns the table slot pointing at element, or -1 if it is not in the set
+    private int slotOf(int element) {
+        int slot = hash(element) & mask;
+        while (table[slot] != 0) {
+            if (elements[table[slot] - 1] == element) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Empties a table slot, shifting later entries of the same probe run back into the gap
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (table[next] != 0) {
+            int home = hash(elements[table[next] - 1]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = 0;
+    }
+
+    private void resize(int newCapacity) {
+        allocate(newCapacity);
+        for (int i = 0; i < size; i++) {
+            int slot = hash(elements[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        threshold = Math.min((int) (capacity * LOAD_FACTOR), capacity - 1);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < n && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,249 @@
+package structures;
+
+import java.lang.reflect.Array;
+
+/**
+ * A hash map from primitive long keys to values of type V. It is the long
+ * counterpart of IntObjectMap: keys are kept in a flat long[] next to a
+ * parallel value array, so composite keys packed into 64 bits can be looked
+ * up without boxing.
+ *
+ * Key 0 marks an empty slot in the key array, so a mapping for key 0 is held
+ * outside the table in its own field.
+ */
+@SuppressWarnings("unchecked")
+public class LongObjectMap<V> {
+
+    private static final long FREE_KEY = 0L;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private Object[] values;
+    private final float loadFactor;
+    private int mask;
+    private int threshold;
+    private int size;
+    private final MapStats stats = new MapStats();
+
+    private boolean hasFreeKey;
+    private Object freeValue;
+
+    public LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongObjectMap(int expectedSize, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / loadFactor)));
+    }
+
+    // Adds a mapping from key to value, replacing any value already mapped from key
+    public void add(long key, V value) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+                stats.recordInsert(1);
+            }
+            freeValue = value;
+            return;
+        }
+
+        int slot = hash(key) & mask;
+        int probes = 1;
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+            probes++;
+        }
+
+        if (size - (hasFreeKey ? 1 : 0) >= keys.length - 1) {
+            //Probes end at a free slot, so the table must always keep one
+            throw new IllegalStateException("LongObjectMap is full: cannot hold more than " + (keys.length - 1) + " entries");
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        stats.recordInsert(probes);
+        if (++size > threshold) {
+            resize(keys.length * 2);
+        }
+    }
+
+    // Returns the value mapped from key, or null if there is none
+    public V get(long key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? (V) freeValue : null;
+        }
+        int slot = indexOf(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    public boolean containsKey(long key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    // Removes the mapping for key. Returns true on success, false if key was not mapped
+    public boolean remove(long key) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                return false;
+            }
+            hasFreeKey = false;
+            freeValue = null;
+            size--;
+            return true;
+        }
+
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return false;
+        }
+
+        //Shift later entries of the same probe run back into the gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE_KEY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE_KEY;
+        values[gap] = null;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        allocate(DEFAULT_CAPACITY);
+        hasFreeKey = false;
+        freeValue = null;
+        size = 0;
+    }
+
+    // Counters for inserts, probe lengths and resizes on this map
+    public MapStats getStats() {
+        return stats;
+    }
+
+    // Installs a listener that is told about every insert and resize, or removes it when null
+    public void setListener(MapListener listener) {
+        stats.setListener(listener);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns every key in the map, in table order
+    public long[] keys() {
+        long[] result = new long[size];
+        int index = 0;
+        if (hasFreeKey) {
+            result[index++] = FREE_KEY;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                result[index++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    // Returns every value in the map, in the same order as keys(). Like
+    // Collection.toArray, dest is filled if it is large enough, otherwise a new
+    // array of the same type is allocated.
+    public V[] values(V[] dest) {
+        if (dest.length < size) {
+            dest = (V[]) Array.newInstance(dest.getClass().getComponentType(), size);
+        }
+        int index = 0;
+        if (hasFreeKey) {
+            dest[index++] = (V) freeValue;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                dest[index++] = (V) values[i];
+            }
+        }
+        return dest;
+    }
+
+    private static int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        int code = (int) (mixed ^ (mixed >>> 32));
+        return code ^ (code >>> 16);
+    }
+
+    // Returns the slot holding key, or -1 if the key is not in the table
+    private int indexOf(long key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int newCapacity) {
+        if (keys.length >= MAXIMUM_CAPACITY) {
+            threshold = keys.length - 1;
+            return;
+        }
+
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        stats.recordResize(oldKeys.length, newCapacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != FREE_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < n && capacity < MAXIMUM_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,17 @@
+package structures;
+
+/**
+ * A hook for tracing what a hash map is doing. Maps have no listener by
+ * default; one can be installed with setListener when a trace is wanted.
+ * The callbacks only receive primitives, so a listener that does nothing
+ * costs nothing beyond the call itself.
+ */
+public interface MapListener {
+
+    // Called after a new key is inserted, with the number of slots probed to place it.
+    public void onInsert(int probeLength);
+
+    // Called after the table has been rebuilt with a larger capacity.
+    public void onResize(int oldCapacity, int newCapacity);
+
+}
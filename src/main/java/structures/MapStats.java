@@ -0,0 +1,77 @@
+package structures;
+
+/**
+ * Running counters for a hash map: how many keys were inserted, how far the
+ * inserts had to probe and how often the table was resized. The counters are
+ * plain fields updated on every insert, so they can be sampled at any time
+ * without any logging on the insert path. If a MapListener is set it is told
+ * about each event as well.
+ */
+public class MapStats {
+
+    private long inserts;
+    private long totalProbes;
+    private int maxProbeLength;
+    private long resizes;
+    private MapListener listener;
+
+    void recordInsert(int probeLength) {
+        inserts++;
+        totalProbes += probeLength;
+        if (probeLength > maxProbeLength) {
+            maxProbeLength = probeLength;
+        }
+        if (listener != null) {
+            listener.onInsert(probeLength);
+        }
+    }
+
+    void recordResize(int oldCapacity, int newCapacity) {
+        resizes++;
+        if (listener != null) {
+            listener.onResize(oldCapacity, newCapacity);
+        }
+    }
+
+    public void setListener(MapListener listener) {
+        this.listener = listener;
+    }
+
+    public MapListener getListener() {
+        return listener;
+    }
+
+    // Number of new keys inserted (overwriting an existing key is not counted)
+    public long getInserts() {
+        return inserts;
+    }
+
+    // Sum of the probe lengths of every insert
+    public long getTotalProbes() {
+        return totalProbes;
+    }
+
+    public double getAverageProbeLength() {
+        return inserts == 0 ? 0 : totalProbes / (double) inserts;
+    }
+
+    public int getMaxProbeLength() {
+        return maxProbeLength;
+    }
+
+    public long getResizes() {
+        return resizes;
+    }
+
+    public void reset() {
+        inserts = 0;
+        totalProbes = 0;
+        maxProbeLength = 0;
+        resizes = 0;
+    }
+
+    public String toString() {
+        return "inserts=" + inserts + ", avgProbe=" + getAverageProbeLength()
+                + ", maxProbe=" + maxProbeLength + ", resizes=" + resizes;
+    }
+}
@@ -7,7 +7,12 @@ public class MyArrayList<E> implements IList<E> {
     private int capacity;
     
     public MyArrayList() {
-        this.capacity = 100;
+        this(100);
+    }
+
+    // Starts with room for initialCapacity elements, for lists expected to stay small
+    public MyArrayList(int initialCapacity) {
+        this.capacity = Math.max(initialCapacity, 1);
         this.array = new Object[capacity];
         this.size = 0;
     }
@@ -83,6 +88,16 @@ public class MyArrayList<E> implements IList<E> {
         return false;
     }
 
+    // Removes and returns the last element, so callers can fill a gap without shifting
+    public E removeLast() {
+        if (size == 0) {
+            throw new ArrayIndexOutOfBoundsException("removeLast on an empty list");
+        }
+        E last = this.get(size - 1);
+        this.array[--size] = null;
+        return last;
+    }
+
     public E set(int index, E element) {
         if (index >= this.size()) {
             throw new ArrayIndexOutOfBoundsException("index > size: "+index+" >= "+size);
@@ -0,0 +1,78 @@
+package structures;
+
+/**
+ * Substring search over the names of a set of entities (people, keywords),
+ * each known by an int ID. Distinct names are kept once in a dictionary, so
+ * a name shared by many entities is indexed and checked only once, and a
+ * TrigramIndex over the dictionary narrows each search to the few names
+ * holding every trigram of the term before String.contains confirms them.
+ */
+public class NameSearchIndex {
+
+    private final HashMap<String, Integer> nameIDs = new HashMap<>(); //Dictionary ID of each distinct name
+    private final IntObjectMap<String> names = new IntObjectMap<>(); //Each distinct name, keyed by dictionary ID
+    private final IntObjectMap<IntArrayList> owners = new IntObjectMap<>(); //Entities with each name, keyed by dictionary ID
+    private final TrigramIndex trigrams = new TrigramIndex(); //Trigrams of each name, keyed by dictionary ID
+    private int nextNameID = 1;
+
+    // Indexes entity id under name. Null names are not indexed
+    public void add(int id, String name) {
+        if (name == null) {
+            return;
+        }
+
+        Integer nameID = nameIDs.get(name);
+        if (nameID == null) {
+            //First entity with this name, so add it to the dictionary
+            nameID = nextNameID++;
+            nameIDs.add(name, nameID);
+            names.add(nameID, name);
+            owners.add(nameID, new IntArrayList(1));
+            trigrams.add(nameID, name);
+        }
+        owners.get(nameID).add(id);
+    }
+
+    // Removes entity id, which must be passed the name it was added with
+    public void remove(int id, String name) {
+        if (name == null) {
+            return;
+        }
+
+        Integer nameID = nameIDs.get(name);
+        if (nameID == null) {
+            return;
+        }
+        IntArrayList entities = owners.get(nameID);
+        if (entities.remove(id) && entities.isEmpty()) {
+            //Last entity with this name, so drop it from the dictionary
+            nameIDs.remove(name);
+            names.remove(nameID);
+            owners.remove(nameID);
+            trigrams.remove(nameID, name);
+        }
+    }
+
+    // Returns the IDs of every entity whose name contains term, grouped by name
+    public int[] find(String term) {
+        //Only names holding every trigram of the term can contain it. Terms too
+        //short to have trigrams are checked against every distinct name
+        int[] candidates = TrigramIndex.canNarrow(term) ? trigrams.candidates(term) : names.keys();
+
+        IntArrayList found = new IntArrayList();
+        for (int nameID : candidates) {
+            if (names.get(nameID).contains(term)) {
+                IntArrayList entities = owners.get(nameID);
+                for (int i = 0; i < entities.size(); i++) {
+                    found.add(entities.get(i));
+                }
+            }
+        }
+        return found.toArray();
+    }
+
+    // Number of distinct names indexed
+    public int size() {
+        return names.size();
+    }
+}
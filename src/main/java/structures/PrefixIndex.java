@@ -0,0 +1,438 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Typeahead suggestions: given what the user has typed so far, returns the
+ * highest scoring entries with a word in their name starting with it. Names
+ * are matched case-insensitively, at the start of any word, so "wars" and
+ * "star w" both suggest "Star Wars".
+ *
+ * Every word start of every name is inserted into a trie held in flat arrays
+ * (a label, parent, first child and next sibling per node). Each node caches
+ * the best maxSuggestions entries in its subtree, with their scores so the
+ * caches are ranked without looking entries up. A suggestion is a walk
+ * down the typed prefix plus a copy of one cached array. The caches are kept
+ * up to date on every change, along the paths above the entry's words only,
+ * stopping at the first cache the entry is not in. An entry that is added or
+ * scores higher is merged into each cache. An entry that is removed or scores
+ * lower is moved or dropped where nothing outside the cache can outrank it,
+ * and otherwise the cache is rebuilt from the node's own entries and its
+ * children's caches, children first. No suggestion ever has to rebuild
+ * caches, even straight after a bulk load.
+ *
+ * To bound memory only the first MAX_DEPTH chars of each word are inserted.
+ * Longer prefixes are answered by checking the entries under the deepest node.
+ */
+public class PrefixIndex {
+
+    public static final int MAX_DEPTH = 16;
+    public static final int DEFAULT_SUGGESTIONS = 10;
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int[] NO_ENTRIES = new int[0];
+
+    private final int maxSuggestions;
+
+    //The trie, one slot per node
+    private char[] labels;
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private IntArrayList[] nodeEntries; //IDs of the entries with a word ending at each node, or null
+    private int[][] bestEntries;        //Cached best IDs in each node's subtree, highest score first, or null if it has none
+    private float[][] bestScores;       //Scores of the cached IDs, so caches are ranked without looking entries up
+    private int nodeCount;
+
+    private final IntObjectMap<Entry> entries = new IntObjectMap<>(); //Indexed entries, keyed by ID
+
+    private static class Entry {
+        final String name; //Lower case name
+        final int[] nodes; //Distinct nodes the words of the name end at
+        float score;
+
+        Entry(String name, int[] nodes, float score) {
+            this.name = name;
+            this.nodes = nodes;
+            this.score = score;
+        }
+    }
+
+    public PrefixIndex() {
+        this(DEFAULT_SUGGESTIONS);
+    }
+
+    public PrefixIndex(int maxSuggestions) {
+        if (maxSuggestions <= 0) {
+            throw new IllegalArgumentException("Suggestion count must be positive: " + maxSuggestions);
+        }
+        this.maxSuggestions = maxSuggestions;
+        labels = new char[64];
+        parents = new int[64];
+        firstChildren = new int[64];
+        nextSiblings = new int[64];
+        nodeEntries = new IntArrayList[64];
+        bestEntries = new int[64][];
+        bestScores = new float[64][];
+        newNode(ROOT, '\0');
+        parents[ROOT] = NONE;
+    }
+
+    // Indexes the entry id under name with the given score, replacing any entry already indexed for id.
+    // Null names are not indexed
+    public void add(int id, String name, float score) {
+        remove(id);
+        if (name == null) {
+            return;
+        }
+
+        String lowerName = name.toLowerCase(Locale.ROOT);
+        int[] wordStarts = wordStarts(lowerName);
+        int[] nodes = new int[wordStarts.length];
+        for (int i = 0; i < wordStarts.length; i++) {
+            //Walk down the trie, adding nodes for the chars that are not there yet
+            int node = ROOT;
+            int end = Math.min(lowerName.length(), wordStarts[i] + MAX_DEPTH);
+            for (int j = wordStarts[i]; j < end; j++) {
+                int child = childOf(node, lowerName.charAt(j));
+                node = child == NONE ? addChild(node, lowerName.charAt(j)) : child;
+            }
+            nodes[i] = node;
+        }
+
+        //A word repeated in the name ends at the same node, which lists the entry once
+        nodes = distinct(nodes);
+        for (int node : nodes) {
+            if (nodeEntries[node] == null) {
+                nodeEntries[node] = new IntArrayList(1);
+            }
+            nodeEntries[node].add(id);
+        }
+        entries.add(id, new Entry(lowerName, nodes, score));
+        promoteAbove(nodes, id, score);
+    }
+
+    // Removes the entry id. Its trie nodes stay in place for later entries to reuse
+    public boolean remove(int id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        for (int node : entry.nodes) {
+            IntArrayList ids = nodeEntries[node];
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                nodeEntries[node] = null;
+            }
+        }
+        for (int node : cachesHolding(entry.nodes, id)) {
+            demote(node, id, true);
+        }
+        entries.remove(id);
+        return true;
+    }
+
+    // Changes the score of entry id. Returns false if it is not indexed
+    public boolean setScore(int id, float score) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.score != score) {
+            boolean higher = score > entry.score;
+            entry.score = score;
+            if (higher) {
+                promoteAbove(entry.nodes, id, score);
+            }
+            else {
+                for (int node : cachesHolding(entry.nodes, id)) {
+                    demote(node, id, false);
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean contains(int id) {
+        return entries.containsKey(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Returns up to numResults IDs (never more than maxSuggestions) of the entries with
+    // a word starting with prefix, highest score first and lower ID first on ties
+    public int[] suggest(String prefix, int numResults) {
+        int limit = Math.min(numResults, maxSuggestions);
+        if (limit <= 0) {
+            return new int[0];
+        }
+
+        String query = prefix.stripLeading().toLowerCase(Locale.ROOT);
+        int node = ROOT;
+        for (int i = 0; i < query.length() && i < MAX_DEPTH; i++) {
+            node = childOf(node, query.charAt(i));
+            if (node == NONE) {
+                return new int[0];
+            }
+        }
+
+        if (query.length() <= MAX_DEPTH) {
+            int[] best = bestOf(node);
+            return Arrays.copyOf(best, Math.min(limit, best.length));
+        }
+
+        //The prefix runs past the indexed depth, so check the entries ending at that node
+        IntArrayList ids = nodeEntries[node];
+        TopKSelector top = new TopKSelector(limit);
+        for (int i = 0; ids != null && i < ids.size(); i++) {
+            Entry entry = entries.get(ids.get(i));
+            if (hasWordStartingWith(entry.name, query)) {
+                top.offer(ids.get(i), entry.score);
+            }
+        }
+        return top.toSortedIDs();
+    }
+
+    // Returns the best IDs in the subtree of node, highest score first
+    private int[] bestOf(int node) {
+        int[] best = bestEntries[node];
+        return best == null ? NO_ENTRIES : best;
+    }
+
+    // Merges id, which is new or now scores higher, into the caches above the given nodes. A node's
+    // subtree holds its children's, so once id misses a cache it misses every cache above it too
+    private void promoteAbove(int[] nodes, int id, float score) {
+        for (int node : nodes) {
+            while (node != NONE && promote(node, id, score)) {
+                node = parents[node];
+            }
+        }
+    }
+
+    // Merges id, scoring score, into node's cache when it ranks among the best, and returns whether
+    // it did. The rest of the cache stays valid, since no other entry changed
+    private boolean promote(int node, int id, float score) {
+        int[] best = bestOf(node);
+        int at = indexOf(best, id);
+        if (at < 0 && best.length == maxSuggestions) {
+            int last = best.length - 1;
+            if (!ranksAbove(id, score, best[last], bestScores[node][last])) {
+                return false;
+            }
+        }
+        place(node, at, id, score);
+        return true;
+    }
+
+    // Moves id, scoring score, from index at of node's cache (or adds it, if at is -1) to its
+    // place in rank order, keeping at most maxSuggestions IDs
+    private void place(int node, int at, int id, float score) {
+        int[] best = bestOf(node);
+        float[] scores = bestScores[node];
+        int length = at < 0 ? Math.min(best.length + 1, maxSuggestions) : best.length;
+        int[] updated = new int[length];
+        float[] updatedScores = new float[length];
+        int count = 0;
+        boolean placed = false;
+        for (int i = 0; i < best.length && count < length; i++) {
+            if (i == at) {
+                continue;
+            }
+            if (!placed && ranksAbove(id, score, best[i], scores[i])) {
+                updated[count] = id;
+                updatedScores[count++] = score;
+                placed = true;
+                if (count == length) {
+                    break;
+                }
+            }
+            updated[count] = best[i];
+            updatedScores[count++] = scores[i];
+        }
+        if (!placed && count < length) {
+            updated[count] = id;
+            updatedScores[count] = score;
+        }
+        bestEntries[node] = updated;
+        bestScores[node] = updatedScores;
+    }
+
+    // Updates node's cache if it holds id, which has been removed or now scores lower. Called
+    // for children before their parents, so the children's caches are already up to date
+    private void demote(int node, int id, boolean removed) {
+        int[] best = bestOf(node);
+        int at = indexOf(best, id);
+        if (at < 0) {
+            //Every entry in the cache still outranks id, and nothing else changed
+            return;
+        }
+        float score = entries.get(id).score;
+        int last = best.length - 1;
+        if (!removed && (best.length < maxSuggestions || (at != last && ranksAbove(id, score, best[last], bestScores[node][last])))) {
+            //The cache holds the whole subtree, or id still outranks everything left out of it
+            place(node, at, id, score);
+            return;
+        }
+        if (best.length < maxSuggestions) {
+            //The cache holds the whole subtree, so only id goes
+            setBest(node, without(best, at), without(bestScores[node], at));
+            return;
+        }
+
+        //The best of a subtree are among the node's own entries and the best of each child.
+        //A name with words under two children shows up twice, so skip repeats
+        TopKSelector top = new TopKSelector(maxSuggestions);
+        IntArrayList ids = nodeEntries[node];
+        IntSet seen = new IntSet((ids == null ? 0 : ids.size()) + 4 * maxSuggestions);
+        for (int i = 0; ids != null && i < ids.size(); i++) {
+            if (seen.add(ids.get(i))) {
+                top.offer(ids.get(i), entries.get(ids.get(i)).score);
+            }
+        }
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            int[] childBest = bestOf(child);
+            for (int i = 0; i < childBest.length; i++) {
+                if (seen.add(childBest[i])) {
+                    top.offer(childBest[i], bestScores[child][i]);
+                }
+            }
+        }
+
+        int[] rebuilt = top.toSortedIDs();
+        float[] rebuiltScores = new float[rebuilt.length];
+        for (int i = 0; i < rebuilt.length; i++) {
+            rebuiltScores[i] = entries.get(rebuilt[i]).score;
+        }
+        setBest(node, rebuilt, rebuiltScores);
+    }
+
+    // Sets node's cache, or clears it if it has no IDs
+    private void setBest(int node, int[] best, float[] scores) {
+        bestEntries[node] = best.length == 0 ? null : best;
+        bestScores[node] = best.length == 0 ? null : scores;
+    }
+
+    // Returns the nodes above the given nodes whose caches hold id, each once. Once id misses a cache it
+    // misses every cache above it. A child is always made after its parent, so descending order puts
+    // every node before its ancestors
+    private int[] cachesHolding(int[] nodes, int id) {
+        IntArrayList holding = new IntArrayList();
+        for (int node : nodes) {
+            while (node != NONE && indexOf(bestOf(node), id) >= 0) {
+                holding.add(node);
+                node = parents[node];
+            }
+        }
+        int[] sorted = holding.toArray();
+        Arrays.sort(sorted);
+        int[] result = new int[sorted.length];
+        int count = 0;
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            if (count == 0 || sorted[i] != result[count - 1]) {
+                result[count++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // True if entry a, scoring scoreA, ranks before entry b, scoring scoreB: a higher score, or the
+    // same score and a lower ID
+    private static boolean ranksAbove(int a, float scoreA, int b, float scoreB) {
+        return scoreA > scoreB || (scoreA == scoreB && a < b);
+    }
+
+    private static int indexOf(int[] ids, int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] without(int[] values, int at) {
+        int[] result = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, at + 1, result, at, values.length - at - 1);
+        return result;
+    }
+
+    private static float[] without(float[] values, int at) {
+        float[] result = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, at + 1, result, at, values.length - at - 1);
+        return result;
+    }
+
+    private static int[] distinct(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+
+    private int childOf(int node, char label) {
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            if (labels[child] == label) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int addChild(int node, char label) {
+        int child = newNode(node, label);
+        nextSiblings[child] = firstChildren[node];
+        firstChildren[node] = child;
+        return child;
+    }
+
+    private int newNode(int parent, char label) {
+        if (nodeCount == labels.length) {
+            int capacity = nodeCount * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            nodeEntries = Arrays.copyOf(nodeEntries, capacity);
+            bestEntries = Arrays.copyOf(bestEntries, capacity);
+            bestScores = Arrays.copyOf(bestScores, capacity);
+        }
+        int node = nodeCount++;
+        labels[node] = label;
+        parents[node] = parent;
+        firstChildren[node] = NONE;
+        nextSiblings[node] = NONE;
+        return node;
+    }
+
+    // Returns the index of the first char of every word in name
+    private static int[] wordStarts(String name) {
+        IntArrayList starts = new IntArrayList();
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isWhitespace(name.charAt(i)) && (i == 0 || Character.isWhitespace(name.charAt(i - 1)))) {
+                starts.add(i);
+            }
+        }
+        if (starts.isEmpty()) {
+            //A blank name is still indexed, under the root
+            starts.add(name.length());
+        }
+        return starts.toArray();
+    }
+
+    private static boolean hasWordStartingWith(String name, String query) {
+        for (int start : wordStarts(name)) {
+            if (name.startsWith(query, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,68 +1,195 @@
 package structures;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import structures.ISet;
 
 /**
-* A generic implementation of the IList iterface.
-*/
+ * A hashed implementation of the ISet interface. Elements are kept in a dense
+ * array, and a linear-probing table of positions into that array answers
+ * add, contains and remove in constant expected time.
+ *
+ * Iteration walks the dense array, so it follows insertion order until an
+ * element is removed. Removal moves the last element into the freed position.
+ */
 public class Set0<E> implements ISet<E>, Iterable<E> {
-    
-    private MyArrayList1<E> array = new MyArrayList1<>();
 
-    // COMPLETE.
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private Object[] elements;
+    private int[] table; //Position of each element in elements plus one, 0 marks an empty slot
+    private int mask;
+    private int threshold;
+    private int size;
+
+    public Set0() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Set0(int expectedSize) {
+        elements = new Object[Math.max(expectedSize, 1)];
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR)));
+    }
+
     public boolean add(E element) {
-        // Adds element to the list when it does not already exist.
+        // Adds element to the set when it does not already exist.
         // Returns true on success and false otherwise.
+        int slot = hash(element) & mask;
+        while (table[slot] != 0) {
+            if (Objects.equals(elements[table[slot] - 1], element)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == elements.length) {
+            Object[] tmp = new Object[size * 2];
+            System.arraycopy(elements, 0, tmp, 0, size);
+            elements = tmp;
+        }
+        elements[size] = element;
+        table[slot] = ++size;
 
-        //check if the set contains the element by using the methods from MyArrayList
-        if (!contains(element)) {
-            //if it doesnt add the element to the arraylist and return true
-            array.add(element);
-            return true;
+        if (size > threshold) {
+            resize(table.length * 2);
         }
-        //else return false
-        return false;
+        return true;
     }
-    
-    // COMPLETE.
+
     public String toString() {
         // Returns a string representation of this Set object.
-
-        //check if the arraylist is empty by using the methods from the arraylist class
-            if (array.isEmpty()) {
-                return "[]";
-            }
-
-        //if its not use the toString() method from the arraylist class
-        return array.toString();
+        if (isEmpty()) {
+            return "[]";
+        }
+        StringBuilder ret = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            ret.append(elements[i]).append(", ");
+        }
+        ret.setLength(ret.length() - 2);
+        return ret.append(']').toString();
     }
-    
+
     public void clear() {
-        array.clear();
+        elements = new Object[DEFAULT_CAPACITY];
+        allocate(tableSizeFor((int) Math.ceil(DEFAULT_CAPACITY / LOAD_FACTOR)));
+        size = 0;
     }
 
     public boolean contains(E element) {
-        return array.contains(element);
+        return slotOf(element) >= 0;
     }
 
     public boolean isEmpty() {
-        return array.isEmpty();
+        return size == 0;
     }
 
     public boolean remove(E element) {
-        return array.remove(element);
+        int slot = slotOf(element);
+        if (slot < 0) {
+            return false;
+        }
+        int position = table[slot] - 1;
+        deleteSlot(slot);
+
+        //Fill the hole in the dense array with the last element
+        int last = size - 1;
+        if (position != last) {
+            int lastSlot = hash(elements[last]) & mask;
+            while (table[lastSlot] != last + 1) {
+                lastSlot = (lastSlot + 1) & mask;
+            }
+            table[lastSlot] = position + 1;
+            elements[position] = elements[last];
+        }
+        elements[last] = null;
+        size--;
+        return true;
     }
 
     public int size() {
-        return array.size();
+        return size;
     }
-    
+
     /// Iterator implementation
     @Override
     public Iterator<E> iterator() {
-        return array.iterator();
+        return new SetIterator();
+    }
+
+    private class SetIterator implements Iterator<E> {
+        private int currentIndex = 0;
+
+        @Override
+        public boolean hasNext() {
+            return currentIndex < size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (E) elements[currentIndex++];
+        }
     }
 
+    private static int hash(Object element) {
+        int code = Objects.hashCode(element) * 0x9E3779B9;
+        return code ^ (code >>> 16);
+    }
+
+    // Returns the table slot pointing at element, or -1 if it is not in the set
+    private int slotOf(Object element) {
+        int slot = hash(element) & mask;
+        while (table[slot] != 0) {
+            if (Objects.equals(elements[table[slot] - 1], element)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
 
+    // Empties a table slot, shifting later entries of the same probe run back into the gap
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (table[next] != 0) {
+            int home = hash(elements[table[next] - 1]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = 0;
+    }
+
+    private void resize(int newCapacity) {
+        allocate(newCapacity);
+        for (int i = 0; i < size; i++) {
+            int slot = hash(elements[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        threshold = Math.min((int) (capacity * LOAD_FACTOR), capacity - 1);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < n && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
 }
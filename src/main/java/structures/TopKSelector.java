@@ -0,0 +1,125 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the k best (id, score) pairs out of any number offered to it, using a
+ * bounded min-heap whose root is the weakest pair kept so far. Each offer costs
+ * O(log k) and the selector never holds more than k pairs, so ranking n items
+ * takes O(n log k) time and O(k) memory instead of sorting all n.
+ *
+ * A higher score ranks first. Pairs with equal scores are ranked by the lower
+ * ID first, so the result does not depend on the order pairs were offered in.
+ */
+public class TopKSelector {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int k;
+    private int[] ids;
+    private double[] scores;
+    private int size;
+
+    public TopKSelector(int k) {
+        this.k = Math.max(k, 0);
+        int capacity = Math.min(this.k, INITIAL_CAPACITY);
+        ids = new int[capacity];
+        scores = new double[capacity];
+    }
+
+    public void offer(int id, int score) {
+        insert(id, score);
+    }
+
+    public void offer(int id, float score) {
+        insert(id, score);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Returns the IDs kept so far, best first. The selector itself is left unchanged
+    public int[] toSortedIDs() {
+        int[] heapIDs = Arrays.copyOf(ids, size);
+        double[] heapScores = Arrays.copyOf(scores, size);
+
+        //Repeatedly move the weakest pair to the back, which leaves the best at the front
+        int[] result = new int[size];
+        for (int end = size - 1; end >= 0; end--) {
+            result[end] = heapIDs[0];
+            heapIDs[0] = heapIDs[end];
+            heapScores[0] = heapScores[end];
+            siftDown(heapIDs, heapScores, 0, end);
+        }
+        return result;
+    }
+
+    private void insert(int id, double score) {
+        if (size < k) {
+            if (size == ids.length) {
+                int capacity = (int) Math.min((long) k, ids.length * 2L);
+                ids = Arrays.copyOf(ids, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        }
+        else if (size > 0 && isWorse(scores[0], ids[0], score, id)) {
+            //Replace the weakest pair kept so far
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(ids, scores, 0, size);
+        }
+    }
+
+    private void siftUp(int index) {
+        int id = ids[index];
+        double score = scores[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(score, id, scores[parent], ids[parent])) {
+                break;
+            }
+            ids[index] = ids[parent];
+            scores[index] = scores[parent];
+            index = parent;
+        }
+        ids[index] = id;
+        scores[index] = score;
+    }
+
+    private static void siftDown(int[] ids, double[] scores, int index, int size) {
+        int id = ids[index];
+        double score = scores[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && isWorse(scores[right], ids[right], scores[child], ids[child])) {
+                child = right;
+            }
+            if (!isWorse(scores[child], ids[child], score, id)) {
+                break;
+            }
+            ids[index] = ids[child];
+            scores[index] = scores[child];
+            index = child;
+        }
+        ids[index] = id;
+        scores[index] = score;
+    }
+
+    // True if the first pair ranks below the second
+    private static boolean isWorse(double score, int id, double otherScore, int otherID) {
+        if (score != otherScore) {
+            return score < otherScore;
+        }
+        return id > otherID;
+    }
+}
@@ -0,0 +1,118 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * An inverted index from every three-character sequence (trigram) to the
+ * sorted IDs of the documents whose text contains it, for substring search.
+ * A document containing a search term must contain every trigram of the term,
+ * so intersecting the term's posting lists narrows the search to a short list
+ * of candidates. Those still have to be checked with String.contains, because
+ * a candidate may hold all the trigrams without holding them next to each other.
+ *
+ * Trigrams are taken over UTF-16 chars, the same units String.contains
+ * compares, and never span two texts of the same document. Terms shorter
+ * than three chars have no trigrams and cannot be narrowed this way.
+ */
+public class TrigramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private final LongObjectMap<IntPostingList> postings = new LongObjectMap<>();
+
+    // Indexes the texts of document id. Null texts are skipped
+    public void add(int id, String... texts) {
+        for (long trigram : trigramsOf(texts)) {
+            IntPostingList documents = postings.get(trigram);
+            if (documents == null) {
+                documents = new IntPostingList();
+                postings.add(trigram, documents);
+            }
+            documents.add(id);
+        }
+    }
+
+    // Removes document id, which must be passed the same texts it was added with
+    public void remove(int id, String... texts) {
+        for (long trigram : trigramsOf(texts)) {
+            IntPostingList documents = postings.get(trigram);
+            if (documents != null && documents.remove(id) && documents.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    // True if term is long enough for candidates to narrow the search
+    public static boolean canNarrow(String term) {
+        return term.length() >= GRAM_LENGTH;
+    }
+
+    // Returns, in ascending order, the IDs of the documents containing every trigram
+    // of term. The term must be at least GRAM_LENGTH chars long
+    public int[] candidates(String term) {
+        if (!canNarrow(term)) {
+            throw new IllegalArgumentException("Search term is shorter than " + GRAM_LENGTH + " chars: " + term);
+        }
+
+        long[] trigrams = trigramsOf(term);
+        IntPostingList[] lists = new IntPostingList[trigrams.length];
+        int shortest = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                //No document holds this trigram, so none can hold the term
+                return new int[0];
+            }
+            if (lists[i].size() < lists[shortest].size()) {
+                shortest = i;
+            }
+        }
+
+        //Intersect from the shortest list so each step gallops through a longer one
+        int[] result = lists[shortest].toArray();
+        for (int i = 0; i < lists.length && result.length > 0; i++) {
+            if (i != shortest) {
+                result = lists[i].intersect(result);
+            }
+        }
+        return result;
+    }
+
+    // Number of distinct trigrams indexed
+    public int size() {
+        return postings.size();
+    }
+
+    // Returns the distinct trigrams of the texts, each packed into a long
+    private static long[] trigramsOf(String... texts) {
+        int total = 0;
+        for (String text : texts) {
+            if (text != null && text.length() >= GRAM_LENGTH) {
+                total += text.length() - GRAM_LENGTH + 1;
+            }
+        }
+
+        long[] trigrams = new long[total];
+        int count = 0;
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                trigrams[count++] = ((long) text.charAt(i) << 32)
+                        | ((long) text.charAt(i + 1) << 16)
+                        | text.charAt(i + 2);
+            }
+        }
+
+        //Sort so repeats sit together, then squeeze them out
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[i] != trigrams[distinct - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+}
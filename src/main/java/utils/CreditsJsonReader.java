@@ -0,0 +1,322 @@
+package utils;
+
+import java.util.Arrays;
+import stores.CastCredit;
+import stores.CrewCredit;
+
+/**
+ * Pulls the cast and crew credits out of the JSON arrays in the credits csv
+ * file without building an org.json JSONArray of JSONObjects first. The JSON
+ * is read one token at a time, each wanted value is decoded straight into a
+ * local and then into the CastCredit or CrewCredit, and gender is stepped
+ * over. A string without escapes is a substring of the cell, so reading a
+ * credit allocates little more than the credit and its strings.
+ *
+ * Only the JSON the credits file is written in is read this way: an array of
+ * objects holding the keys LoadData expects, each once, with plain integers
+ * and strings in double or single quotes, as org.json allows. For anything else, such as a missing key, a
+ * number written as a string or syntax only org.json's lenient parser allows,
+ * readCast and readCrew return null, and the cell should be parsed with
+ * org.json, which either accepts it or throws the same JSONException as
+ * before.
+ */
+class CreditsJsonReader {
+
+    private static final String[] CAST_KEYS = {"cast_id", "character", "credit_id", "gender", "id", "name", "order", "profile_path"};
+    private static final boolean[] CAST_INT_KEYS = {true, false, false, true, true, false, true, false};
+    private static final int CAST_ID = 0, CHARACTER = 1, CAST_CREDIT_ID = 2, CAST_PERSON_ID = 4, CAST_NAME = 5, ORDER = 6, CAST_PROFILE_PATH = 7;
+
+    private static final String[] CREW_KEYS = {"credit_id", "department", "gender", "id", "job", "name", "profile_path"};
+    private static final boolean[] CREW_INT_KEYS = {false, false, true, true, false, false, false};
+    private static final int CREW_CREDIT_ID = 0, DEPARTMENT = 1, CREW_PERSON_ID = 3, JOB = 4, CREW_NAME = 5, CREW_PROFILE_PATH = 6;
+
+    private static final CastCredit[] NO_CAST = new CastCredit[0];
+    private static final CrewCredit[] NO_CREW = new CrewCredit[0];
+
+    //The cell being read and the position of the next character in it
+    private String json;
+    private int pos;
+
+    //Values of the object being read, by key index. Reused for every object
+    private final String[] strings = new String[8];
+    private final int[] ints = new int[8];
+
+    //Credits of the cell being read, copied into an array of the right size at the end
+    private CastCredit[] cast = new CastCredit[16];
+    private CrewCredit[] crew = new CrewCredit[16];
+
+    // Thrown at anything the reader leaves to org.json
+    private static class UnreadableException extends RuntimeException {
+        UnreadableException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Reads the cast column of one record
+     * @param json The text of the cast cell
+     * @return The cast credits in the order they are listed, or null if the cell has to be parsed with org.json
+     */
+    CastCredit[] readCast(String json) {
+        try {
+            int size = 0;
+            for (boolean more = startArray(json); more; more = nextElement()) {
+                readObject(CAST_KEYS, CAST_INT_KEYS);
+                if (size == cast.length) {
+                    cast = Arrays.copyOf(cast, size * 2);
+                }
+                cast[size++] = new CastCredit(ints[CAST_ID], strings[CHARACTER], strings[CAST_CREDIT_ID],
+                                        ints[CAST_PERSON_ID], strings[CAST_NAME], ints[ORDER], strings[CAST_PROFILE_PATH]);
+            }
+            endArray();
+            return size == 0 ? NO_CAST : Arrays.copyOf(cast, size);
+        }
+        catch (UnreadableException e) {
+            return null;
+        }
+        finally {
+            Arrays.fill(cast, null);
+            Arrays.fill(strings, null);
+        }
+    }
+
+    /**
+     * Reads the crew column of one record
+     * @param json The text of the crew cell
+     * @return The crew credits in the order they are listed, or null if the cell has to be parsed with org.json
+     */
+    CrewCredit[] readCrew(String json) {
+        try {
+            int size = 0;
+            for (boolean more = startArray(json); more; more = nextElement()) {
+                readObject(CREW_KEYS, CREW_INT_KEYS);
+                if (size == crew.length) {
+                    crew = Arrays.copyOf(crew, size * 2);
+                }
+                crew[size++] = new CrewCredit(strings[CREW_CREDIT_ID], strings[DEPARTMENT], ints[CREW_PERSON_ID],
+                                        strings[JOB], strings[CREW_NAME], strings[CREW_PROFILE_PATH]);
+            }
+            endArray();
+            return size == 0 ? NO_CREW : Arrays.copyOf(crew, size);
+        }
+        catch (UnreadableException e) {
+            return null;
+        }
+        finally {
+            Arrays.fill(crew, null);
+            Arrays.fill(strings, null);
+        }
+    }
+
+    // Reads up to the first element of the array. Returns false if the array is empty
+    private boolean startArray(String json) {
+        this.json = json;
+        pos = 0;
+        skipWhitespace();
+        expect('[');
+        skipWhitespace();
+        return peek() != ']';
+    }
+
+    // Reads past the comma before the next element. Returns false at the end of the array
+    private boolean nextElement() {
+        skipWhitespace();
+        if (peek() == ']') {
+            return false;
+        }
+        expect(',');
+        skipWhitespace();
+        return true;
+    }
+
+    // Reads the closing bracket, which must be the last thing in the cell
+    private void endArray() {
+        expect(']');
+        skipWhitespace();
+        if (pos != json.length()) {
+            throw new UnreadableException();
+        }
+    }
+
+    // Reads an object holding exactly the given keys into strings and ints
+    private void readObject(String[] keys, boolean[] intKeys) {
+        expect('{');
+        int seen = 0; //Bit for each key read so far
+        skipWhitespace();
+        if (peek() != '}') {
+            while (true) {
+                int key = readKey(keys);
+                if ((seen & (1 << key)) != 0) {
+                    throw new UnreadableException();
+                }
+                seen |= 1 << key;
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                if (intKeys[key]) {
+                    ints[key] = readInt();
+                }
+                else {
+                    strings[key] = readString();
+                }
+                skipWhitespace();
+                if (peek() == '}') {
+                    break;
+                }
+                expect(',');
+                skipWhitespace();
+            }
+        }
+        pos++;
+        if (seen != (1 << keys.length) - 1) {
+            throw new UnreadableException();
+        }
+    }
+
+    // Returns the index of the key at pos, comparing it in place rather than decoding it
+    private int readKey(String[] keys) {
+        char quote = readQuote();
+        int end = json.indexOf(quote, pos);
+        if (end < 0 || json.lastIndexOf('\\', end) >= pos) {
+            throw new UnreadableException();
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].length() == end - pos && json.startsWith(keys[i], pos)) {
+                pos = end + 1;
+                return i;
+            }
+        }
+        throw new UnreadableException();
+    }
+
+    // Reads a plain integer without leading zeros that fits in an int
+    private int readInt() {
+        boolean negative = peek() == '-';
+        if (negative) {
+            pos++;
+        }
+        int digitsStart = pos;
+        long value = 0;
+        while (pos < json.length() && json.charAt(pos) >= '0' && json.charAt(pos) <= '9') {
+            value = value * 10 + (json.charAt(pos) - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new UnreadableException();
+            }
+            pos++;
+        }
+        int numDigits = pos - digitsStart;
+        if (numDigits == 0 || (numDigits > 1 && json.charAt(digitsStart) == '0') || (negative && value == 0)
+                || (!negative && value > Integer.MAX_VALUE)) {
+            throw new UnreadableException();
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    // Reads a quoted string, decoding the escapes org.json decodes
+    private String readString() {
+        char quote = readQuote();
+        int start = pos;
+        while (pos < json.length()) {
+            char c = json.charAt(pos);
+            if (c == quote) {
+                pos++;
+                return json.substring(start, pos - 1);
+            }
+            if (c == '\\') {
+                break;
+            }
+            if (c == '\n' || c == '\r' || c == 0) {
+                throw new UnreadableException();
+            }
+            pos++;
+        }
+        StringBuilder decoded = new StringBuilder(pos - start + 16).append(json, start, pos);
+        while (true) {
+            char c = next();
+            if (c == quote) {
+                return decoded.toString();
+            }
+            switch (c) {
+                case '\\':
+                    decoded.append(readEscape());
+                    break;
+                case '\n':
+                case '\r':
+                case 0:
+                    throw new UnreadableException();
+                default:
+                    decoded.append(c);
+            }
+        }
+    }
+
+    // Reads the quote that opens a key or string, which org.json allows to be " or ', and returns it
+    private char readQuote() {
+        char quote = next();
+        if (quote != '"' && quote != '\'') {
+            throw new UnreadableException();
+        }
+        return quote;
+    }
+
+    // Decodes the escape after a backslash
+    private char readEscape() {
+        char c = next();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'f':
+                return '\f';
+            case 'r':
+                return '\r';
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                return c;
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    char hex = next();
+                    int digit = hex <= 'f' ? Character.digit(hex, 16) : -1;
+                    if (digit < 0) {
+                        throw new UnreadableException();
+                    }
+                    code = code * 16 + digit;
+                }
+                return (char) code;
+            default:
+                throw new UnreadableException();
+        }
+    }
+
+    // Skips whitespace the way org.json does, which is every control character but 0
+    private void skipWhitespace() {
+        while (pos < json.length() && json.charAt(pos) <= ' ' && json.charAt(pos) != 0) {
+            pos++;
+        }
+    }
+
+    private char peek() {
+        if (pos >= json.length()) {
+            throw new UnreadableException();
+        }
+        return json.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void expect(char c) {
+        if (next() != c) {
+            throw new UnreadableException();
+        }
+    }
+}
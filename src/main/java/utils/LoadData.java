@@ -1,9 +1,15 @@
 package utils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -12,7 +18,18 @@ import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import javax.swing.JLabel;
 import javax.swing.JProgressBar;
@@ -30,6 +47,7 @@ import stores.Company;
 import stores.CrewCredit;
 import stores.Genre;
 import stores.Keyword;
+import structures.IntSet;
 import interfaces.AbstractStores;
 
 public class LoadData implements Runnable {
@@ -139,6 +157,9 @@ public class LoadData implements Runnable {
     public enum StoreType {CREDITS, KEYWORDS, METADATA, RATINGS}
 
 
+    //Credits, keywords and ratings each get a thread, or fewer on small machines
+    private static final int NUM_LOADER_THREADS = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors()));
+
     private long currentNumber = 0;
     private long totalNumber = 0;
     private String loadingString = "";
@@ -162,30 +183,62 @@ public class LoadData implements Runnable {
         int totalNumLines = 0;
         int totalNumCurrentlyProcessed = 0;
         HashMap<StoreType, Long> numLines = new HashMap<>();
+        HashMap<StoreType, Integer> numProcessed = new HashMap<>(); //Records reported through incrementUIBy
         JProgressBar loadingBar;
         JLabel loadingText;
+        // Reports nothing, for loading a single file on its own
+        FileLoadUiUpdater(){
+        }
         public FileLoadUiUpdater(JProgressBar loadingBar, JLabel loadingText, File creditsFile, File keywordsFile, File movieFile, File ratingsFile) throws DataLoadException{
+            this(loadingBar, loadingText, creditsFile, keywordsFile, movieFile, ratingsFile, null);
+        }
+        // Counts the lines of the files on the executor, all at once, when one is given
+        public FileLoadUiUpdater(JProgressBar loadingBar, JLabel loadingText, File creditsFile, File keywordsFile, File movieFile, File ratingsFile, ExecutorService executor) throws DataLoadException{
             this.loadingBar = loadingBar;
             this.loadingText = loadingText;
-            try{
-                // Populate numLines with how many lines each file has
-                numLines.put(StoreType.CREDITS,  (Files.lines(creditsFile.toPath()).count() - 2));
-                numLines.put(StoreType.KEYWORDS, (Files.lines(keywordsFile.toPath()).count() - 2));
-                numLines.put(StoreType.METADATA, (Files.lines(movieFile.toPath()).count() - 2));
-                numLines.put(StoreType.RATINGS,  (Files.lines(ratingsFile.toPath()).count() - 2));
-                for (long fileNumLines : numLines.values()){
-                    totalNumLines += fileNumLines;
-                }
+            // Populate numLines with how many lines each file has
+            if (executor == null){
+                numLines.put(StoreType.CREDITS,  countLines(creditsFile));
+                numLines.put(StoreType.KEYWORDS, countLines(keywordsFile));
+                numLines.put(StoreType.METADATA, countLines(movieFile));
+                numLines.put(StoreType.RATINGS,  countLines(ratingsFile));
+            }
+            else{
+                Future<Long> credits  = executor.submit(() -> countLines(creditsFile));
+                Future<Long> keywords = executor.submit(() -> countLines(keywordsFile));
+                Future<Long> metadata = executor.submit(() -> countLines(movieFile));
+                Future<Long> ratings  = executor.submit(() -> countLines(ratingsFile));
+                numLines.put(StoreType.CREDITS,  await(credits));
+                numLines.put(StoreType.KEYWORDS, await(keywords));
+                numLines.put(StoreType.METADATA, await(metadata));
+                numLines.put(StoreType.RATINGS,  await(ratings));
+            }
+            for (long fileNumLines : numLines.values()){
+                totalNumLines += fileNumLines;
+            }
+        }
+        private long countLines(File file) throws DataLoadException {
+            try (Stream<String> lines = Files.lines(file.toPath())){
+                return lines.count() - 2;
             }
-            catch(IOException e){
+            catch(IOException | UncheckedIOException e){
                 throw new DataLoadException(e.getMessage());
             }
         }
-        private void incrementUI(StoreType fileType, int numRecordsProcessed) {
+        // Called by every loader thread when loading in parallel, so updates are one at a time
+        private synchronized void incrementUI(StoreType fileType, int numRecordsProcessed) {
+            updateUI(fileType, numRecordsProcessed, 1);
+        }
+        // Reports a batch of records at once, for loaders that parse a file in several pieces at the same time
+        private synchronized void incrementUIBy(StoreType fileType, int numNewRecords) {
+            int numRecordsProcessed = numProcessed.merge(fileType, numNewRecords, Integer::sum);
+            updateUI(fileType, numRecordsProcessed, numNewRecords);
+        }
+        private void updateUI(StoreType fileType, int numRecordsProcessed, int numNewRecords) {
             if (loadingBar == null || loadingText == null) {
                 return;
             }
-            totalNumCurrentlyProcessed++;
+            totalNumCurrentlyProcessed += numNewRecords;
             loadingBar.setValue((int) ((totalNumCurrentlyProcessed / (double) totalNumLines)*(double)loadingBar.getMaximum()));
             loadingString = "[1/2] Loading Data into backend: ";
             switch (fileType) {
@@ -215,7 +268,19 @@ public class LoadData implements Runnable {
     public LoadData(String creditsPath, String keywordsPath, String movieMetadataPath, String ratingsPath) throws DataLoadException{
         this(null, null, creditsPath, keywordsPath, movieMetadataPath, ratingsPath);
     }
+    //Loading into memory, parsing the credits, keywords and ratings files at the same time when parallel is set
+    public LoadData(String creditsPath, String keywordsPath, String movieMetadataPath, String ratingsPath, boolean parallel) throws DataLoadException{
+        this(null, null, creditsPath, keywordsPath, movieMetadataPath, ratingsPath, parallel);
+    }
+    //Loads nothing, so single files can be loaded on their own
+    LoadData(JProgressBar loadingBar, JLabel loadingText){
+        this.loadingBar = loadingBar;
+        this.loadingText = loadingText;
+    }
     public LoadData(JProgressBar loadingBar, JLabel loadingText, String creditsPath, String keywordsPath, String movieMetadataPath, String ratingsPath) throws DataLoadException{
+        this(loadingBar, loadingText, creditsPath, keywordsPath, movieMetadataPath, ratingsPath, false);
+    }
+    public LoadData(JProgressBar loadingBar, JLabel loadingText, String creditsPath, String keywordsPath, String movieMetadataPath, String ratingsPath, boolean parallel) throws DataLoadException{
         this.loadingBar = loadingBar;
         this.loadingText = loadingText;
         System.out.println("Loading data into record structures (backend)");
@@ -234,14 +299,75 @@ public class LoadData implements Runnable {
         File ratingsFile = new File(ratingsPath);
         if (!ratingsFile.isFile())  { throw new DataLoadException(String.format(formatString, "ratings", ratingsPath)); }
 
-        // class to set total number of lines and number of lines for each type so that the actual load function can just do updateUI with what type it is and how many it has loaded
-        FileLoadUiUpdater loadingUiUpdater = new FileLoadUiUpdater(loadingBar, loadingText, creditsFile, keywordsFile, moviesFile, ratingsFile);
+        if (!parallel){
+            // class to set total number of lines and number of lines for each type so that the actual load function can just do updateUI with what type it is and how many it has loaded
+            FileLoadUiUpdater loadingUiUpdater = new FileLoadUiUpdater(loadingBar, loadingText, creditsFile, keywordsFile, moviesFile, ratingsFile);
+
+            //Load Metadata first to load validMovieIds
+            Set<Integer> validMovies = loadMetadata(moviesFile, loadingUiUpdater);
+            loadCredits(creditsFile, loadingUiUpdater, validMovies);
+            loadKeywords(keywordsFile, loadingUiUpdater, validMovies);
+            loadRatings(ratingsFile, loadingUiUpdater, validMovies);
+            return;
+        }
 
-        //Load Metadata first to load validMovieIds
-        Set<Integer> validMovies = loadMetadata(moviesFile, loadingUiUpdater);
-        loadCredits(creditsFile, loadingUiUpdater, validMovies);
-        loadKeywords(keywordsFile, loadingUiUpdater, validMovies);
-        loadRatings(ratingsFile, loadingUiUpdater, validMovies);
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_LOADER_THREADS, loaderThreadFactory());
+        try{
+            FileLoadUiUpdater loadingUiUpdater = new FileLoadUiUpdater(loadingBar, loadingText, creditsFile, keywordsFile, moviesFile, ratingsFile, executor);
+
+            //Load Metadata first to load validMovieIds, then the files that check against them all at once.
+            //Each loader only fills its own backend structures, and waiting on its future makes them visible here
+            Set<Integer> validMovies = loadMetadata(moviesFile, loadingUiUpdater);
+            List<Future<Void>> loads = new ArrayList<>();
+            loads.add(executor.submit(() -> { loadRatingsInChunks(ratingsFile, loadingUiUpdater, validMovies); return null; }));
+            loads.add(executor.submit(() -> { loadCredits(creditsFile, loadingUiUpdater, validMovies); return null; }));
+            loads.add(executor.submit(() -> { loadKeywords(keywordsFile, loadingUiUpdater, validMovies); return null; }));
+            for (Future<Void> load : loads){
+                await(load);
+            }
+        }
+        finally{
+            //Frees the threads. If a loader failed, the others are left to finish on their daemon threads
+            executor.shutdownNow();
+        }
+    }
+
+    //Daemon threads, so a loader left running after another one failed does not keep the program alive
+    private static ThreadFactory loaderThreadFactory(){
+        return runnable -> {
+            Thread thread = new Thread(runnable, "LoadData-loader");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /***
+     * Wait for a task running on a loader thread, rethrowing anything it threw
+     * @param task The task to wait for
+     * @return The result of the task
+     * @throws DataLoadException If the task failed to load its file
+     */
+    private <T> T await(Future<T> task) throws DataLoadException {
+        try{
+            return task.get();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new DataLoadException("Interrupted while loading data");
+        }
+        catch (ExecutionException e){
+            Throwable cause = e.getCause();
+            if (cause instanceof DataLoadException){
+                throw (DataLoadException) cause;
+            }
+            if (cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error){
+                throw (Error) cause;
+            }
+            throw new DataLoadException(String.valueOf(cause));
+        }
     }
 
     public int getNumMovieRecords(){
@@ -464,47 +590,25 @@ public class LoadData implements Runnable {
                             .setSkipHeaderRecord(true)
                             .build();
         int record_count = 1;
+        CreditsJsonReader jsonReader = new CreditsJsonReader();
         try (CSVParser parser = CSVParser.parse(creditsCsvFile, Charset.forName("UTF-8"), csvFormat)){
             for (CSVRecord csvRecord : parser){
                 if (csvRecord.size() != 3){
                     throw new DataLoadException("[CREDITS] Incorrect number of csv fields in record number: " + record_count + ". Number of fields found: " + csvRecord.size());
                 }
 
-                // Parse cast
-                JSONArray castJsonArray = new JSONArray(csvRecord.get("cast"));
-                CastCredit[] castArray = new CastCredit[castJsonArray.length()];
-                for (int i = 0; i < castJsonArray.length(); i++){
-                    // Each cast member
-                    JSONObject castJsonObject = castJsonArray.getJSONObject(i);
-
-                    int castElementId  = castJsonObject.getInt("cast_id");
-                    String character   = castJsonObject.getString("character");
-                    String creditId    = castJsonObject.getString("credit_id");
-                    int gender         = castJsonObject.getInt("gender"); //Note: ignoring this field
-                    int castId         = castJsonObject.getInt("id");
-                    String name        = castJsonObject.getString("name");
-                    int order          = castJsonObject.getInt("order"); 
-                    String profilePath = castJsonObject.getString("profile_path");
-
-                    castArray[i] = new CastCredit(castElementId, character, creditId, 
-                                            castId, name, order, profilePath);
+                // Parse cast, with org.json if the streaming reader can't
+                String castJson = csvRecord.get("cast");
+                CastCredit[] castArray = jsonReader.readCast(castJson);
+                if (castArray == null){
+                    castArray = parseCastJson(castJson);
                 }
 
                 // Parse crew
-                JSONArray crewJsonArray = new JSONArray(csvRecord.get("crew"));
-                CrewCredit[] crewArray = new CrewCredit[crewJsonArray.length()];
-                for (int i = 0; i < crewJsonArray.length(); i++){
-                    // Each crew member
-                    JSONObject crewJsonObject = crewJsonArray.getJSONObject(i);
-                    String crewElementId = crewJsonObject.getString("credit_id");
-                    String department    = crewJsonObject.getString("department");
-                    int gender           = crewJsonObject.getInt("gender"); //Note: ignoring this field
-                    int crewId           = crewJsonObject.getInt("id");
-                    String job           = crewJsonObject.getString("job");
-                    String name          = crewJsonObject.getString("name");
-                    String profilePath   = crewJsonObject.getString("profile_path");
-
-                    crewArray[i] = new CrewCredit(crewElementId, department, crewId, job, name, profilePath);
+                String crewJson = csvRecord.get("crew");
+                CrewCredit[] crewArray = jsonReader.readCrew(crewJson);
+                if (crewArray == null){
+                    crewArray = parseCrewJson(crewJson);
                 }
 
                 // Parse top level id in csv file (never empty)
@@ -545,6 +649,57 @@ public class LoadData implements Runnable {
 
     }
 
+    /***
+     * Parse a cast cell of the credits file into a JSONArray and copy it into CastCredit objects
+     * @param castJson The JSON array of cast members
+     * @throws JSONException When a key is not found or has the wrong type
+     */
+    CastCredit[] parseCastJson(String castJson) {
+        JSONArray castJsonArray = new JSONArray(castJson);
+        CastCredit[] castArray = new CastCredit[castJsonArray.length()];
+        for (int i = 0; i < castJsonArray.length(); i++){
+            // Each cast member
+            JSONObject castJsonObject = castJsonArray.getJSONObject(i);
+
+            int castElementId  = castJsonObject.getInt("cast_id");
+            String character   = castJsonObject.getString("character");
+            String creditId    = castJsonObject.getString("credit_id");
+            int gender         = castJsonObject.getInt("gender"); //Note: ignoring this field
+            int castId         = castJsonObject.getInt("id");
+            String name        = castJsonObject.getString("name");
+            int order          = castJsonObject.getInt("order"); 
+            String profilePath = castJsonObject.getString("profile_path");
+
+            castArray[i] = new CastCredit(castElementId, character, creditId, 
+                                    castId, name, order, profilePath);
+        }
+        return castArray;
+    }
+
+    /***
+     * Parse a crew cell of the credits file into a JSONArray and copy it into CrewCredit objects
+     * @param crewJson The JSON array of crew members
+     * @throws JSONException When a key is not found or has the wrong type
+     */
+    CrewCredit[] parseCrewJson(String crewJson) {
+        JSONArray crewJsonArray = new JSONArray(crewJson);
+        CrewCredit[] crewArray = new CrewCredit[crewJsonArray.length()];
+        for (int i = 0; i < crewJsonArray.length(); i++){
+            // Each crew member
+            JSONObject crewJsonObject = crewJsonArray.getJSONObject(i);
+            String crewElementId = crewJsonObject.getString("credit_id");
+            String department    = crewJsonObject.getString("department");
+            int gender           = crewJsonObject.getInt("gender"); //Note: ignoring this field
+            int crewId           = crewJsonObject.getInt("id");
+            String job           = crewJsonObject.getString("job");
+            String name          = crewJsonObject.getString("name");
+            String profilePath   = crewJsonObject.getString("profile_path");
+
+            crewArray[i] = new CrewCredit(crewElementId, department, crewId, job, name, profilePath);
+        }
+        return crewArray;
+    }
+
     private void loadKeywords(File keywordsCsvFile, FileLoadUiUpdater loadingUiUpdater, Set<Integer> validMovies) throws DataLoadException {
         System.out.println("\nLoading keywords from \"" + keywordsCsvFile.getPath() + "\"...");
 
@@ -788,6 +943,35 @@ public class LoadData implements Runnable {
      */
     private void loadRatings(File ratingsCsvFile, FileLoadUiUpdater loadUiUpdater, Set<Integer> validMovies) throws DataLoadException {
         System.out.println("\nLoading ratings from \"" + ratingsCsvFile.getPath() + "\"...\n\n");
+        if (!loadRatingsFromBytes(ratingsCsvFile, loadUiUpdater, validMovies, 1)){
+            loadRatingsWithCsvParser(ratingsCsvFile, loadUiUpdater, validMovies);
+        }
+    }
+
+    /***
+     * Load the Ratings file into RatingRecord objects like loadRatings, but parse it in pieces at the
+     * same time on a fork-join pool. The file is cut into byte ranges at newlines, and the records of
+     * each range are added to the backend datastructures in file order, so the result is the same
+     * as loadRatings.
+     * @param ratingsCsvFile The file to load in
+     * @param loadUiUpdater
+     * @param validMovies The set of movies that have been parsed from the movies file
+     * @throws DataLoadException When the file is of the incorrect format
+     */
+    private void loadRatingsInChunks(File ratingsCsvFile, FileLoadUiUpdater loadUiUpdater, Set<Integer> validMovies) throws DataLoadException {
+        System.out.println("\nLoading ratings in parallel from \"" + ratingsCsvFile.getPath() + "\"...\n\n");
+        int numRanges = RATINGS_CHUNKS_PER_THREAD * Runtime.getRuntime().availableProcessors();
+        if (!loadRatingsFromBytes(ratingsCsvFile, loadUiUpdater, validMovies, numRanges)){
+            loadRatingsWithCsvParser(ratingsCsvFile, loadUiUpdater, validMovies);
+        }
+    }
+
+    // Loads the ratings file on its own with Commons CSV, without reporting progress
+    void loadRatingsWithCsvParser(File ratingsCsvFile, Set<Integer> validMovies) throws DataLoadException {
+        loadRatingsWithCsvParser(ratingsCsvFile, new FileLoadUiUpdater(), validMovies);
+    }
+
+    private void loadRatingsWithCsvParser(File ratingsCsvFile, FileLoadUiUpdater loadUiUpdater, Set<Integer> validMovies) throws DataLoadException {
         CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
                             .setHeader()
                             .setSkipHeaderRecord(true)
@@ -851,6 +1035,284 @@ public class LoadData implements Runnable {
         }
     }
 
+    // Loads the ratings file on its own with a RatingsReader, without reporting progress
+    boolean loadRatingsFromBytes(File ratingsCsvFile, Set<Integer> validMovies, int numRanges) throws DataLoadException {
+        return loadRatingsFromBytes(ratingsCsvFile, new FileLoadUiUpdater(), validMovies, numRanges);
+    }
+
+    //Ranges the ratings file is cut into for each thread, so a thread that finishes early can take another
+    private static final int RATINGS_CHUNKS_PER_THREAD = 4;
+
+    /***
+     * Load the Ratings file with a RatingsReader, which decodes the numbers straight from the mapped
+     * bytes of the file. The whole file is scanned first, and nothing is loaded if it holds something
+     * only Commons CSV reads correctly, such as quoted fields, or if its header isn't the expected one.
+     * Otherwise the records are added as they are decoded. With more than one range, the ranges are
+     * scanned and then read at the same time on a fork-join pool, and each range is added in file
+     * order as soon as it has been read.
+     * @param ratingsCsvFile The file to load in
+     * @param loadUiUpdater
+     * @param validMovies The set of movies that have been parsed from the movies file
+     * @param numRanges The number of byte ranges to cut the file into
+     * @return false if the file has to be loaded with Commons CSV instead
+     * @throws DataLoadException When the file is of the incorrect format
+     */
+    private boolean loadRatingsFromBytes(File ratingsCsvFile, FileLoadUiUpdater loadUiUpdater, Set<Integer> validMovies, int numRanges) throws DataLoadException {
+        IntSet movies = new IntSet(validMovies.size());
+        for (int movieId : validMovies){
+            movies.add(movieId);
+        }
+        ForkJoinPool pool = numRanges > 1 ? new ForkJoinPool(Runtime.getRuntime().availableProcessors()) : null;
+        try (FileChannel channel = FileChannel.open(ratingsCsvFile.toPath(), StandardOpenOption.READ)){
+            byte[] headerBytes = readLine(channel, 0);
+            RatingsReader reader = RatingsReader.forHeader(new String(headerBytes, StandardCharsets.UTF_8));
+            if (reader == null){
+                return false;
+            }
+            long dataStart = Math.min(headerBytes.length + 1, channel.size());
+            if (pool == null){
+                long numRecords = reader.scan(channel, dataStart, channel.size());
+                if (numRecords < 0){
+                    return false;
+                }
+                backendRatings.ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8, backendRatings.size() + numRecords));
+                try{
+                    reader.read(channel, dataStart, channel.size(), movies, this::addRating, n -> loadUiUpdater.incrementUIBy(StoreType.RATINGS, n));
+                }
+                catch (RatingsReader.RecordException e){
+                    throw ratingsRecordFailure(e, 0);
+                }
+                return true;
+            }
+
+            long[] bounds = splitAtNewlines(channel, dataStart, numRanges);
+            List<RatingsScan> scans = new ArrayList<>();
+            List<RatingsChunk> chunks = new ArrayList<>();
+            try{
+                for (int i = 0; i + 1 < bounds.length; i++){
+                    RatingsScan scan = new RatingsScan(reader, channel, bounds[i], bounds[i + 1]);
+                    scans.add(scan);
+                    pool.execute(scan);
+                }
+                long[] numRecords = new long[scans.size()];
+                long totalRecords = 0;
+                for (int i = 0; i < scans.size(); i++){
+                    numRecords[i] = scans.get(i).join();
+                    if (numRecords[i] < 0){
+                        return false;
+                    }
+                    totalRecords += numRecords[i];
+                }
+                backendRatings.ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8, backendRatings.size() + totalRecords));
+
+                for (int i = 0; i < scans.size(); i++){
+                    RatingsChunk chunk = new RatingsChunk(reader, channel, bounds[i], bounds[i + 1], numRecords[i], movies, loadUiUpdater);
+                    chunks.add(chunk);
+                    pool.execute(chunk);
+                }
+                //Ranges are waited for in file order, so the first bad record in the file is the one reported
+                int record_count = 0;
+                for (int i = 0; i < chunks.size(); i++){
+                    RatingsReader.Ratings range;
+                    try{
+                        range = chunks.get(i).join();
+                    }
+                    catch (RuntimeException e){
+                        throw ratingsRecordFailure(e, record_count);
+                    }
+                    for (int j = 0; j < range.size; j++){
+                        addRating(range.userIds[j], range.movieIds[j], range.ratings[j], range.timestamps[j]);
+                    }
+                    record_count += range.size;
+                    //Let go of the range's records now that they are in the backend datastructures
+                    chunks.set(i, null);
+                }
+            }
+            finally{
+                //Stop the ranges still being scanned or read before the channel is closed
+                stopRatingsRanges(pool, scans, chunks);
+            }
+            return true;
+        }
+        catch (IOException | UncheckedIOException e){
+            String message = "[ UNRECOVERABLE I/O ERROR ] Unable to open ratings file ('" + ratingsCsvFile.getPath() +"') for parsing. Please make sure it is in the 'data' directory.";
+            System.err.println(message);
+            System.err.println(e.getMessage());
+            System.err.println(e.getStackTrace());
+            throw new DataLoadException(message);
+        }
+        finally{
+            if (pool != null){
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    // Adds a rating read by a RatingsReader to the backend datastructures
+    private void addRating(int userId, int movieId, float rating, long timestamp){
+        LocalDateTime time = LocalDateTime.ofEpochSecond(timestamp, 0 , ZoneOffset.UTC);
+        RatingRecord rr = new RatingRecord(userId, movieId, rating, time);
+
+        backendRatings.add(rr);
+        if (!backendRatingsByMovieId.containsKey(movieId)){
+            backendRatingsByMovieId.put(movieId, new ArrayList<>());
+        }
+        backendRatingsByMovieId.get(movieId).add(rr);
+    }
+
+    // Counts the records of one byte range of the ratings file, or gives -1 if it needs Commons CSV
+    private static class RatingsScan extends RecursiveTask<Long> {
+        final RatingsReader reader;
+        final FileChannel channel;
+        final long start;
+        final long end;
+        RatingsScan(RatingsReader reader, FileChannel channel, long start, long end){
+            this.reader = reader;
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Long compute() {
+            try{
+                return reader.scan(channel, start, end);
+            }
+            catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Reads one scanned byte range of the ratings file, which starts at the beginning of a line
+    private class RatingsChunk extends RecursiveTask<RatingsReader.Ratings> {
+        final RatingsReader reader;
+        final FileChannel channel;
+        final long start;
+        final long end;
+        final long numRecords;
+        final IntSet validMovies;
+        final FileLoadUiUpdater loadUiUpdater;
+        RatingsChunk(RatingsReader reader, FileChannel channel, long start, long end, long numRecords, IntSet validMovies, FileLoadUiUpdater loadUiUpdater){
+            this.reader = reader;
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.numRecords = numRecords;
+            this.validMovies = validMovies;
+            this.loadUiUpdater = loadUiUpdater;
+        }
+
+        @Override
+        protected RatingsReader.Ratings compute() {
+            RatingsReader.Ratings records = new RatingsReader.Ratings((int) Math.min(Integer.MAX_VALUE - 8, numRecords));
+            try{
+                //Progress is reported every few thousand records, which is also where a cancelled range stops
+                reader.read(channel, start, end, validMovies, records, n -> {
+                    if (isCancelled()){
+                        throw new CancellationException();
+                    }
+                    loadUiUpdater.incrementUIBy(StoreType.RATINGS, n);
+                });
+            }
+            catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+            return records;
+        }
+    }
+
+    // Cancels every range not yet joined and waits for the pool's threads to finish, so no range is
+    // still using the file when it is closed. Ranges being read stop at their next progress report
+    private static void stopRatingsRanges(ForkJoinPool pool, List<RatingsScan> scans, List<RatingsChunk> chunks) {
+        for (RatingsScan scan : scans){
+            scan.cancel(false);
+        }
+        for (RatingsChunk chunk : chunks){
+            if (chunk != null){
+                chunk.cancel(false);
+            }
+        }
+        pool.shutdownNow();
+        try{
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Turns a bad record found by a RatingsReader into the DataLoadException loadRatingsWithCsvParser
+    // would have thrown. recordsBefore is the number of records in the ranges before the failed one
+    private DataLoadException ratingsRecordFailure(RuntimeException e, int recordsBefore) {
+        //The pool may rethrow a copy of the exception, with the original as its cause
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof RatingsReader.RecordException)){
+            cause = cause.getCause();
+        }
+        if (cause == null){
+            throw e;
+        }
+        RatingsReader.RecordException failure = (RatingsReader.RecordException) cause;
+        int record_count = recordsBefore + failure.recordIndex;
+        switch (failure.problem){
+            case NUM_FIELDS:
+                return new DataLoadException("[" + record_count + "] --RATINGS-- Incorrect list of ratings... No. fields found = " + failure.value);
+            case UNKNOWN_MOVIE:
+                return new DataLoadException("Ratings file contains a rating for a movie (id:" + failure.value + ") that doesn't exist in the movie metadata file!");
+            default:
+                String message = "[" + record_count + "] --RATINGS-- Unable to read csv. Item for specified header not found.";
+                System.err.println(message);
+                System.err.println(failure.getCause().getMessage());
+                System.err.println(failure.getCause().getStackTrace());
+                return new DataLoadException(message);
+        }
+    }
+
+    // Returns the line starting at position, without its line ending
+    private static byte[] readLine(FileChannel channel, long position) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (channel.read(buffer, position) > 0){
+            buffer.flip();
+            while (buffer.hasRemaining()){
+                byte b = buffer.get();
+                if (b == '\n'){
+                    return line.toByteArray();
+                }
+                line.write(b);
+            }
+            position += buffer.limit();
+            buffer.clear();
+        }
+        return line.toByteArray();
+    }
+
+    // Cuts the bytes from dataStart to the end of the file into about numRanges ranges, each
+    // ending just after a newline. Returns the offsets between them, starting with dataStart
+    private static long[] splitAtNewlines(FileChannel channel, long dataStart, int numRanges) throws IOException {
+        long size = channel.size();
+        long rangeSize = Math.max(1, (size - dataStart) / Math.max(1, numRanges));
+        ArrayList<Long> bounds = new ArrayList<>();
+        bounds.add(dataStart);
+        long position = dataStart + rangeSize;
+        while (position < size){
+            //Move the cut forward to just after the next newline
+            long cut = position + readLine(channel, position).length + 1;
+            if (cut >= size){
+                break;
+            }
+            bounds.add(cut);
+            position = Math.max(cut, bounds.get(bounds.size() - 1) + rangeSize);
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++){
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
     public class DataLoadException extends Exception {
         public DataLoadException(String message){
             super(message);
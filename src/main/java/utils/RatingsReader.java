@@ -0,0 +1,344 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import structures.IntSet;
+
+/**
+ * Reads the ratings csv file straight from its memory-mapped bytes. The
+ * userId, tmdbId, rating and timestamp of each record are decoded from the
+ * bytes into primitive arrays, so no String is made for a field unless it is
+ * written in a form the byte decoders don't cover, in which case the field is
+ * handed to Integer.parseInt, Float.parseFloat or Long.parseLong as before.
+ *
+ * Records are checked in the same order, and rejected for the same reasons,
+ * as the Commons CSV loader in LoadData. Anything Commons CSV would read
+ * differently from a plain split on commas and newlines (quotes, or a carriage
+ * return that doesn't end a line) is found by scan, which looks at every byte
+ * of a range without decoding it. A caller scans the whole file before reading
+ * any of it, so it can fall back to Commons CSV with nothing added yet.
+ */
+class RatingsReader {
+
+    // Number of fields in the header and in every record
+    static final int NUM_FIELDS = 5;
+
+    //Largest part of the file mapped at once
+    static final int MAP_WINDOW = 1 << 28;
+
+    //Records read between progress reports
+    private static final int PROGRESS_BATCH = 10000;
+
+    //Powers of ten that a float holds exactly
+    private static final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    //Epoch seconds that LocalDateTime can hold
+    private static final long MIN_TIMESTAMP = LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_TIMESTAMP = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC);
+
+    private final int userIdColumn;
+    private final int tmdbIdColumn;
+    private final int ratingColumn;
+    private final int timestampColumn;
+    private final int mapWindow;
+
+    private RatingsReader(int userIdColumn, int tmdbIdColumn, int ratingColumn, int timestampColumn, int mapWindow) {
+        this.userIdColumn = userIdColumn;
+        this.tmdbIdColumn = tmdbIdColumn;
+        this.ratingColumn = ratingColumn;
+        this.timestampColumn = timestampColumn;
+        this.mapWindow = mapWindow;
+    }
+
+    /**
+     * Returns a reader for a ratings file with the given header line, or null if the header
+     * doesn't name the expected columns once each
+     * @param header The first line of the file, without its newline
+     */
+    static RatingsReader forHeader(String header) {
+        if (header.endsWith("\r")) {
+            header = header.substring(0, header.length() - 1);
+        }
+        if (header.indexOf('"') >= 0 || header.indexOf('\r') >= 0) {
+            return null;
+        }
+        List<String> names = List.of(header.split(",", -1));
+        if (names.size() != NUM_FIELDS || names.stream().distinct().count() != NUM_FIELDS) {
+            return null;
+        }
+        int userIdColumn = names.indexOf("userId");
+        int tmdbIdColumn = names.indexOf("tmdbId");
+        int ratingColumn = names.indexOf("rating");
+        int timestampColumn = names.indexOf("timestamp");
+        if (userIdColumn < 0 || tmdbIdColumn < 0 || ratingColumn < 0 || timestampColumn < 0) {
+            return null;
+        }
+        return new RatingsReader(userIdColumn, tmdbIdColumn, ratingColumn, timestampColumn, MAP_WINDOW);
+    }
+
+    // Returns a reader for the same columns that maps at most mapWindow bytes of the file at once
+    RatingsReader withMapWindow(int mapWindow) {
+        return new RatingsReader(userIdColumn, tmdbIdColumn, ratingColumn, timestampColumn, mapWindow);
+    }
+
+    // Takes each record read, in file order
+    interface RecordSink {
+        void add(int userId, int movieId, float rating, long timestamp);
+    }
+
+    // The records read from one range of the file, in file order
+    static class Ratings implements RecordSink {
+        int size;
+        int[] userIds;
+        int[] movieIds;
+        float[] ratings;
+        long[] timestamps;
+
+        Ratings(int capacity) {
+            userIds = new int[capacity];
+            movieIds = new int[capacity];
+            ratings = new float[capacity];
+            timestamps = new long[capacity];
+        }
+
+        @Override
+        public void add(int userId, int movieId, float rating, long timestamp) {
+            if (size == userIds.length) {
+                int capacity = Math.max(16, size * 2);
+                userIds = Arrays.copyOf(userIds, capacity);
+                movieIds = Arrays.copyOf(movieIds, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+            }
+            userIds[size] = userId;
+            movieIds[size] = movieId;
+            ratings[size] = rating;
+            timestamps[size] = timestamp;
+            size++;
+        }
+    }
+
+    enum Problem {NUM_FIELDS, UNKNOWN_MOVIE, BAD_NUMBER}
+
+    // A record that the Commons CSV loader would also have stopped at
+    static class RecordException extends RuntimeException {
+        final int recordIndex; //Number of records before it in the range read
+        final Problem problem;
+        final int value;       //The number of fields found, or the movie that doesn't exist
+
+        RecordException(int recordIndex, Problem problem, int value, Throwable cause) {
+            super(problem.toString(), cause);
+            this.recordIndex = recordIndex;
+            this.problem = problem;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Counts the records between two byte offsets of the file without decoding them, and checks
+     * that Commons CSV would split them the same way read does. start and end are as for read
+     * @return The number of records, or -1 if the range can't be read the same way as Commons CSV
+     */
+    long scan(FileChannel channel, long start, long end) throws IOException {
+        long numRecords = 0;
+        long position = start;
+        while (position < end) {
+            long windowEnd = Math.min(end, position + mapWindow);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, windowEnd - position);
+            int limit = bytes.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit) {
+                    byte b = bytes.get(lineEnd);
+                    if (b == '\n') {
+                        break;
+                    }
+                    if (b == '"' || (b == '\r' && lineEnd + 1 < limit && bytes.get(lineEnd + 1) != '\n')) {
+                        return -1;
+                    }
+                    lineEnd++;
+                }
+                if (lineEnd == limit && windowEnd != end) {
+                    //The line goes past this window, so map again from its start
+                    break;
+                }
+                if (contentEnd(bytes, lineStart, lineEnd) > lineStart) {
+                    numRecords++;
+                }
+                lineStart = lineEnd + 1;
+            }
+            if (lineStart == 0) {
+                //A single line longer than the window
+                return -1;
+            }
+            position += Math.min(lineStart, limit);
+        }
+        return numRecords;
+    }
+
+    /**
+     * Reads the records between two byte offsets of the file, which scan must have accepted.
+     * start must be the start of a line and end the end of the file or just after a newline.
+     * Empty lines are skipped like Commons CSV does.
+     * @param validMovies The movies that a rating may be for
+     * @param records Takes each record read
+     * @param progress Called with the number of records read since it was last called
+     * @return The number of records read
+     * @throws RecordException At the first record that Commons CSV would reject
+     */
+    int read(FileChannel channel, long start, long end, IntSet validMovies, RecordSink records, IntConsumer progress) throws IOException {
+        int[] fieldStarts = new int[NUM_FIELDS + 1];
+        int numRead = 0;
+        int unreported = 0;
+        long position = start;
+        while (position < end) {
+            long windowEnd = Math.min(end, position + mapWindow);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, windowEnd - position);
+            int limit = bytes.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                //Find the end of the line and where each of its fields starts
+                int numFields = 1;
+                fieldStarts[0] = lineStart;
+                int lineEnd = lineStart;
+                while (lineEnd < limit) {
+                    byte b = bytes.get(lineEnd);
+                    if (b == '\n') {
+                        break;
+                    }
+                    if (b == ',') {
+                        if (numFields < NUM_FIELDS) {
+                            fieldStarts[numFields] = lineEnd + 1;
+                        }
+                        numFields++;
+                    }
+                    lineEnd++;
+                }
+                if (lineEnd == limit && windowEnd != end) {
+                    //The line goes past this window, so map again from its start
+                    break;
+                }
+                int contentEnd = contentEnd(bytes, lineStart, lineEnd);
+                if (contentEnd > lineStart) {
+                    fieldStarts[Math.min(numFields, NUM_FIELDS)] = contentEnd + 1;
+                    readRecord(bytes, fieldStarts, numFields, numRead, records, validMovies);
+                    numRead++;
+                    if (++unreported == PROGRESS_BATCH) {
+                        progress.accept(unreported);
+                        unreported = 0;
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            if (lineStart == 0) {
+                throw new IllegalStateException("Ratings line at byte " + position + " is longer than the map window");
+            }
+            position += Math.min(lineStart, limit);
+        }
+        progress.accept(unreported);
+        return numRead;
+    }
+
+    // Returns the end of the line between lineStart and lineEnd, leaving out a carriage return before its newline
+    private static int contentEnd(MappedByteBuffer bytes, int lineStart, int lineEnd) {
+        return lineEnd > lineStart && bytes.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    // Checks and adds the record whose fields start at fieldStarts. The entry after the last field
+    // is one past its end. recordIndex is the number of records before it in the range
+    private void readRecord(MappedByteBuffer bytes, int[] fieldStarts, int numFields, int recordIndex, RecordSink records, IntSet validMovies) {
+        if (numFields != NUM_FIELDS) {
+            throw new RecordException(recordIndex, Problem.NUM_FIELDS, numFields, null);
+        }
+        try {
+            int movieId = parseInt(bytes, fieldStarts[tmdbIdColumn], fieldStarts[tmdbIdColumn + 1] - 1);
+            if (!validMovies.contains(movieId)) {
+                throw new RecordException(recordIndex, Problem.UNKNOWN_MOVIE, movieId, null);
+            }
+            int userId = parseInt(bytes, fieldStarts[userIdColumn], fieldStarts[userIdColumn + 1] - 1);
+            float rating = parseFloat(bytes, fieldStarts[ratingColumn], fieldStarts[ratingColumn + 1] - 1);
+            long timestamp = parseLong(bytes, fieldStarts[timestampColumn], fieldStarts[timestampColumn + 1] - 1);
+            if (timestamp < MIN_TIMESTAMP || timestamp > MAX_TIMESTAMP) {
+                //Throws the same DateTimeException as the Commons CSV loader
+                LocalDateTime.ofEpochSecond(timestamp, 0, ZoneOffset.UTC);
+            }
+            records.add(userId, movieId, rating, timestamp);
+        }
+        catch (NumberFormatException e) {
+            throw new RecordException(recordIndex, Problem.BAD_NUMBER, 0, e);
+        }
+    }
+
+    private static int parseInt(MappedByteBuffer bytes, int from, int to) {
+        long value = parseLong(bytes, from, to);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return Integer.parseInt(text(bytes, from, to));
+        }
+        return (int) value;
+    }
+
+    // Decodes plain decimal digits with an optional minus sign. Anything else goes to Long.parseLong
+    private static long parseLong(MappedByteBuffer bytes, int from, int to) {
+        boolean negative = to - from > 1 && bytes.get(from) == '-';
+        int digitsFrom = negative ? from + 1 : from;
+        //Up to 18 digits can't overflow a long
+        if (to == digitsFrom || to - digitsFrom > 18) {
+            return Long.parseLong(text(bytes, from, to));
+        }
+        long value = 0;
+        for (int i = digitsFrom; i < to; i++) {
+            int digit = bytes.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(text(bytes, from, to));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    // Decodes digits with an optional decimal point, like "3.5". When both the digits and the power
+    // of ten they are divided by fit exactly in a float, one float division rounds the same way
+    // Float.parseFloat does. Anything else goes to Float.parseFloat
+    private static float parseFloat(MappedByteBuffer bytes, int from, int to) {
+        int mantissa = 0;
+        int numDigits = 0;
+        int numDecimals = -1; //Digits after the decimal point, or -1 before it
+        for (int i = from; i < to; i++) {
+            byte b = bytes.get(i);
+            if (b == '.' && numDecimals < 0) {
+                numDecimals = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                return Float.parseFloat(text(bytes, from, to));
+            }
+            mantissa = mantissa * 10 + digit;
+            if (mantissa > 1 << 24) {
+                return Float.parseFloat(text(bytes, from, to));
+            }
+            numDigits++;
+            if (numDecimals >= 0) {
+                numDecimals++;
+            }
+        }
+        if (numDigits == 0 || numDecimals >= FLOAT_POWERS_OF_TEN.length) {
+            return Float.parseFloat(text(bytes, from, to));
+        }
+        return numDecimals > 0 ? mantissa / FLOAT_POWERS_OF_TEN[numDecimals] : mantissa;
+    }
+
+    private static String text(MappedByteBuffer bytes, int from, int to) {
+        byte[] field = new byte[to - from];
+        bytes.get(from, field);
+        return new String(field, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,13 @@
+import stores.Stores;
+
+/**
+ * Runs every MoviesTest case against a Movies store that keeps its metadata
+ * in columns, which must give the same results as the default store.
+ */
+class ColumnarMoviesTest extends MoviesTest {
+
+    @Override
+    Stores newStores() {
+        return new Stores(true);
+    }
+}
@@ -590,4 +590,100 @@ public class CreditsTest {
 
         assertEquals(-1, manyCreditsStores.getCredits().getNumCastCredits(9), "The value is incorrect");
     }
+
+    // Returns the IDs of the people, in order
+    int[] idsOf(Person[] people) {
+        int[] ids = new int[people.length];
+        for (int i = 0; i < people.length; i++) {
+            ids[i] = people[i].getID();
+        }
+        return ids;
+    }
+
+    /**
+     * Cast members with a word of their name starting with the prefix, in
+     * any case, are suggested most credited first
+     */
+    @Test void testSuggestCastPos() {
+        System.out.println("\nStarting testSuggestCastPos...");
+
+        assertArrayEquals(new int[]{1, 2}, idsOf(manyCreditsStores.getCredits().suggestCast("t", 10)), "Tom Hanks has more credits than Tim Allen.");
+        assertArrayEquals(new int[]{1}, idsOf(manyCreditsStores.getCredits().suggestCast("t", 1)), "Only the most credited should be returned.");
+        assertArrayEquals(new int[]{2}, idsOf(manyCreditsStores.getCredits().suggestCast("ALL", 10)), "Any word of the name should match.");
+        assertEquals("Tom Hanks", manyCreditsStores.getCredits().suggestCast("hank", 10)[0].getName(), "Incorrect person returned.");
+    }
+
+    /**
+     * Nothing is suggested for a prefix no name starts with, or from a store
+     * with no credits
+     */
+    @Test void testSuggestCastNeg() {
+        System.out.println("\nStarting testSuggestCastNeg...");
+
+        assertArrayEquals(new Person[0], manyCreditsStores.getCredits().suggestCast("om", 10), "A prefix inside a word should not match.");
+        assertArrayEquals(new Person[0], manyCreditsStores.getCredits().suggestCast("j", 10), "Crew should not be suggested as cast.");
+        assertArrayEquals(new Person[0], emptyCreditsStores.getCredits().suggestCast("t", 10), "An empty array should be returned, as there are no cast members.");
+    }
+
+    /**
+     * Suggestions follow credit counts as films are added and removed, and a
+     * person is no longer suggested once their last film is removed
+     */
+    @Test void testSuggestCastUpdates() {
+        System.out.println("\nStarting testSuggestCastUpdates...");
+
+        Stores stores = new Stores();
+        stores.getCredits().add(new CastCredit[]{woody}, new CrewCredit[0], 301);
+        stores.getCredits().add(new CastCredit[]{buzz}, new CrewCredit[0], 302);
+        stores.getCredits().add(new CastCredit[]{buzz}, new CrewCredit[0], 303);
+        assertArrayEquals(new int[]{2, 1}, idsOf(stores.getCredits().suggestCast("t", 10)), "Tim Allen has more credits than Tom Hanks.");
+
+        stores.getCredits().remove(303);
+        assertArrayEquals(new int[]{1, 2}, idsOf(stores.getCredits().suggestCast("t", 10)), "Ties should go to the lower ID.");
+
+        stores.getCredits().remove(302);
+        assertArrayEquals(new int[]{1}, idsOf(stores.getCredits().suggestCast("t", 10)), "Tim Allen has no credits left.");
+        assertArrayEquals(new Person[0], stores.getCredits().suggestCast("allen", 10), "Tim Allen has no credits left.");
+    }
+
+    /**
+     * Crew members with a word of their name starting with the prefix are
+     * suggested most credited first
+     */
+    @Test void testSuggestCrewPos() {
+        System.out.println("\nStarting testSuggestCrewPos...");
+
+        assertArrayEquals(new int[]{1, 2}, idsOf(manyCreditsStores.getCredits().suggestCrew("j", 10)), "John Lasseter has more credits than Jane Doe.");
+        assertArrayEquals(new int[]{2}, idsOf(manyCreditsStores.getCredits().suggestCrew("Do", 10)), "Any word of the name should match.");
+        assertEquals("John Lasseter", manyCreditsStores.getCredits().suggestCrew("lass", 10)[0].getName(), "Incorrect person returned.");
+    }
+
+    /**
+     * Nothing is suggested for a prefix no name starts with, or from a store
+     * with no credits
+     */
+    @Test void testSuggestCrewNeg() {
+        System.out.println("\nStarting testSuggestCrewNeg...");
+
+        assertArrayEquals(new Person[0], manyCreditsStores.getCredits().suggestCrew("t", 10), "Cast should not be suggested as crew.");
+        assertArrayEquals(new Person[0], manyCreditsStores.getCredits().suggestCrew("j", 0), "No suggestions should be returned when none are asked for.");
+        assertArrayEquals(new Person[0], emptyCreditsStores.getCredits().suggestCrew("j", 10), "An empty array should be returned, as there are no crew members.");
+    }
+
+    /**
+     * Crew suggestions follow credit counts as films are removed
+     */
+    @Test void testSuggestCrewUpdates() {
+        System.out.println("\nStarting testSuggestCrewUpdates...");
+
+        Stores stores = new Stores();
+        stores.getCredits().add(new CastCredit[0], new CrewCredit[]{johnLasseter}, 301);
+        stores.getCredits().add(new CastCredit[0], new CrewCredit[]{janeDoe}, 302);
+        stores.getCredits().add(new CastCredit[0], new CrewCredit[]{janeDoe}, 303);
+        assertArrayEquals(new int[]{2, 1}, idsOf(stores.getCredits().suggestCrew("j", 10)), "Jane Doe has more credits than John Lasseter.");
+
+        stores.getCredits().remove(302);
+        stores.getCredits().remove(303);
+        assertArrayEquals(new int[]{1}, idsOf(stores.getCredits().suggestCrew("j", 10)), "Jane Doe has no credits left.");
+    }
 }
@@ -0,0 +1,180 @@
+import stores.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilmColumnsTest {
+
+    private static final String[] STATUSES = {"Released", "Rumored", "Post Production", null};
+    private static final String[] LANGUAGES = {"en", "fr", "ja", null};
+
+    // Adds a film with the given status, original language and release date, and placeholder values elsewhere
+    private void addFilm(FilmTable table, int id, String status, String originalLanguage, LocalDate release) {
+        table.add(id, "title" + id, "original" + id, "overview" + id, "tagline" + id, status,
+                new Genre[]{new Genre(id, "genre" + id)}, release, id * 10L, id * 20L,
+                new String[]{"en"}, originalLanguage, id + 0.5, "homepage" + id, id % 2 == 0, id % 3 == 0, "poster" + id);
+    }
+
+    /**
+     * Statuses and original languages are dictionary encoded. Repeats, nulls
+     * and values added after a removal all decode to what was stored.
+     */
+    @Test void testDictionaryColumns() {
+        System.out.println("\nStarting testDictionaryColumns...");
+
+        FilmColumns columns = new FilmColumns();
+        addFilm(columns, 1, "Released", "en", null);
+        addFilm(columns, 2, "Released", null, null);
+        addFilm(columns, 3, null, "en", null);
+        addFilm(columns, 4, "Rumored", "fr", null);
+
+        assertEquals("Released", columns.getStatus(1), "Incorrect status.");
+        assertEquals("Released", columns.getStatus(2), "Repeated status should decode the same.");
+        assertNull(columns.getStatus(3), "Null status should stay null.");
+        assertNull(columns.getOriginalLanguage(2), "Null language should stay null.");
+
+        columns.remove(1);
+        addFilm(columns, 5, "Canceled", "en", null);
+        assertEquals("Released", columns.getStatus(2), "Status should survive removal of another film using it.");
+        assertEquals("en", columns.getOriginalLanguage(3), "Language should survive removal of another film using it.");
+        assertEquals("Canceled", columns.getStatus(5), "New status should be added to the dictionary.");
+        assertEquals("fr", columns.getOriginalLanguage(4), "Incorrect language.");
+    }
+
+    /**
+     * Release dates are stored as int epoch days, with null dates and dates
+     * too far out for an int kept apart.
+     */
+    @Test void testReleaseDates() {
+        System.out.println("\nStarting testReleaseDates...");
+
+        FilmColumns columns = new FilmColumns();
+        addFilm(columns, 1, "Released", "en", LocalDate.of(1995, 11, 22));
+        addFilm(columns, 2, "Released", "en", null);
+        addFilm(columns, 3, "Released", "en", LocalDate.MAX);
+        addFilm(columns, 4, "Released", "en", LocalDate.MIN);
+        addFilm(columns, 5, "Released", "en", LocalDate.of(1895, 12, 28));
+
+        assertEquals(LocalDate.of(1995, 11, 22), columns.getRelease(1), "Incorrect release date.");
+        assertNull(columns.getRelease(2), "Missing release date should be null.");
+        assertEquals(LocalDate.MAX, columns.getRelease(3), "Far future date should be kept.");
+        assertEquals(LocalDate.MIN, columns.getRelease(4), "Far past date should be kept.");
+        assertEquals(LocalDate.of(1895, 12, 28), columns.getRelease(5), "Date before the epoch should be kept.");
+
+        //Removing a far dated film moves the last row into its place
+        columns.remove(3);
+        assertNull(columns.getRelease(3), "Removed film should have no release date.");
+        assertEquals(LocalDate.of(1895, 12, 28), columns.getRelease(5), "Moved film should keep its date.");
+        assertEquals(LocalDate.MIN, columns.getRelease(4), "Other far dated film should keep its date.");
+    }
+
+    /**
+     * Removing films moves the last row into the hole, and the moved film
+     * keeps every field, including the ones set after it was added.
+     */
+    @Test void testRemoveMovesLastRow() {
+        System.out.println("\nStarting testRemoveMovesLastRow...");
+
+        FilmColumns columns = new FilmColumns(1);
+        for (int id = 1; id <= 4; id++) {
+            addFilm(columns, id, "Released", "en", LocalDate.of(2000, 1, id));
+        }
+        columns.setVote(4, 7.5, 120);
+        columns.setIMDB(4, "tt0000004");
+        columns.setPopularity(4, 3.25);
+        columns.addCompany(4, new Company(9, "Studio"));
+        columns.addCountry(4, "GB");
+
+        assertTrue(columns.remove(2), "Film should be removed.");
+        assertFalse(columns.remove(2), "Film should only be removed once.");
+        assertFalse(columns.contains(2), "Removed film should not be found.");
+        assertEquals(3, columns.size(), "Incorrect size.");
+        assertEquals(-1, columns.getBudget(2), "Removed film should have no budget.");
+
+        assertEquals("title4", columns.getTitle(4), "Moved film should keep its title.");
+        assertTrue(columns.getAdult(4), "Moved film should keep its adult flag.");
+        assertFalse(columns.getVideo(4), "Moved film should keep its video flag.");
+        assertEquals(7.5, columns.getVoteAverage(4), "Moved film should keep its vote average.");
+        assertEquals(120, columns.getVoteCount(4), "Moved film should keep its vote count.");
+        assertEquals("tt0000004", columns.getIMDB(4), "Moved film should keep its IMDB ID.");
+        assertEquals(3.25, columns.getPopularity(4), "Moved film should keep its popularity.");
+        assertEquals(new Company(9, "Studio"), columns.getCompany(4, 0), "Moved film should keep its company.");
+        assertEquals("Studio", columns.getCompany(4, 0).getName(), "Moved film should keep its company's name.");
+        assertEquals("GB", columns.getCountry(4, 0), "Moved film should keep its country.");
+        assertNull(columns.getCompany(4, 1), "Index past the companies should give null.");
+
+        //Removing the last row needs no move
+        assertTrue(columns.remove(3), "Last film should be removed.");
+        assertEquals("title4", columns.getTitle(4), "Remaining film should keep its title.");
+    }
+
+    /**
+     * The arrays of companies and countries handed out are copies.
+     */
+    @Test void testCompaniesAreCopies() {
+        System.out.println("\nStarting testCompaniesAreCopies...");
+
+        FilmColumns columns = new FilmColumns();
+        addFilm(columns, 1, "Released", "en", null);
+        columns.addCompany(1, new Company(1, "First"));
+        columns.addCountry(1, "US");
+
+        columns.getCompanies(1)[0] = null;
+        columns.getCountries(1)[0] = null;
+        assertEquals(new Company(1, "First"), columns.getCompany(1, 0), "Company should not change.");
+        assertEquals("First", columns.getCompany(1, 0).getName(), "Company name should not change.");
+        assertEquals("US", columns.getCountry(1, 0), "Country should not change.");
+        assertNull(columns.getCompanies(2), "Missing film should have no companies.");
+    }
+
+    /**
+     * Random adds, removes and updates give the same answers from the columns
+     * as from the one object per film table.
+     */
+    @Test void testMatchesFilmRows() {
+        System.out.println("\nStarting testMatchesFilmRows...");
+
+        Random random = new Random(18);
+        FilmColumns columns = new FilmColumns();
+        FilmRows rows = new FilmRows();
+        for (int step = 0; step < 2000; step++) {
+            int id = random.nextInt(200);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    LocalDate release = random.nextInt(10) == 0 ? null : LocalDate.ofEpochDay(random.nextInt(40000) - 20000);
+                    String status = STATUSES[random.nextInt(STATUSES.length)];
+                    String language = LANGUAGES[random.nextInt(LANGUAGES.length)];
+                    addFilm(columns, id, status, language, release);
+                    addFilm(rows, id, status, language, release);
+                    break;
+                case 2:
+                    assertEquals(rows.remove(id), columns.remove(id), "Remove should agree.");
+                    break;
+                default:
+                    columns.setVote(id, id / 10.0, id);
+                    rows.setVote(id, id / 10.0, id);
+                    columns.addCompany(id, new Company(id, "company" + id));
+                    rows.addCompany(id, new Company(id, "company" + id));
+                    break;
+            }
+        }
+
+        assertEquals(rows.size(), columns.size(), "Sizes should agree.");
+        for (int id = 0; id < 200; id++) {
+            assertEquals(rows.contains(id), columns.contains(id), "Contains should agree for " + id);
+            assertEquals(rows.getTitle(id), columns.getTitle(id), "Titles should agree for " + id);
+            assertEquals(rows.getStatus(id), columns.getStatus(id), "Statuses should agree for " + id);
+            assertEquals(rows.getOriginalLanguage(id), columns.getOriginalLanguage(id), "Languages should agree for " + id);
+            assertEquals(rows.getRelease(id), columns.getRelease(id), "Release dates should agree for " + id);
+            assertEquals(rows.getBudget(id), columns.getBudget(id), "Budgets should agree for " + id);
+            assertEquals(rows.getAdult(id), columns.getAdult(id), "Adult flags should agree for " + id);
+            assertEquals(rows.getVideo(id), columns.getVideo(id), "Video flags should agree for " + id);
+            assertEquals(rows.getVoteAverage(id), columns.getVoteAverage(id), "Vote averages should agree for " + id);
+            assertArrayEquals(rows.getCompanies(id), columns.getCompanies(id), "Companies should agree for " + id);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.Random;
+
+import structures.HashMap;
+
+/**
+ * Measures the average cost of HashMap.get as the map grows from 10 thousand
+ * to 10 million entries. With a resizing table the time per lookup should stay
+ * roughly flat across all sizes.
+ *
+ * Run with a large heap, e.g. java -Xmx4g HashMapBenchmark
+ */
+public class HashMapBenchmark {
+
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000, 10_000_000};
+    private static final int LOOKUPS = 2_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.println("entries\t\tns/hit\tns/miss\tprobes/hit\tinsert stats");
+        for (int size : SIZES) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) {
+        Random random = new Random(size);
+        HashMap<Integer, Integer> map = new HashMap<>();
+
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt(Integer.MAX_VALUE);
+            map.add(keys[i], i);
+        }
+
+        // Pre-compute the keys to look up so boxing is not part of the timing
+        Integer[] hits = new Integer[LOOKUPS];
+        Integer[] misses = new Integer[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            hits[i] = keys[random.nextInt(size)];
+            misses[i] = -1 - random.nextInt(Integer.MAX_VALUE);
+        }
+
+        long hitNanos = Long.MAX_VALUE;
+        long missNanos = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                sink += map.get(hits[i]);
+            }
+            hitNanos = Math.min(hitNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (map.containsKey(misses[i])) {
+                    sink++;
+                }
+            }
+            missNanos = Math.min(missNanos, System.nanoTime() - start);
+        }
+
+        long probes = 0;
+        for (int i = 0; i < 100_000; i++) {
+            probes += map.find(hits[i]);
+        }
+
+        System.out.printf("%,d\t%.1f\t%.1f\t%.2f\t%s%n", size,
+                hitNanos / (double) LOOKUPS,
+                missNanos / (double) LOOKUPS,
+                probes / 100_000.0,
+                map.getStats());
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+}
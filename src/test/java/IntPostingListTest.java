@@ -0,0 +1,207 @@
+import structures.IntPostingList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntPostingListTest {
+
+    // Builds a posting list holding the given values
+    private IntPostingList listOf(int... values) {
+        IntPostingList list = new IntPostingList();
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * Values added out of order come back sorted, and repeats are refused.
+     */
+    @Test void testAddKeepsOrder() {
+        System.out.println("\nStarting testAddKeepsOrder...");
+
+        IntPostingList list = new IntPostingList(1);
+        assertTrue(list.add(5), "New value should be added.");
+        assertTrue(list.add(1), "New value should be added.");
+        assertTrue(list.add(9), "New value should be added.");
+        assertTrue(list.add(3), "New value should be added.");
+        assertFalse(list.add(5), "Repeated value should not be added.");
+
+        assertArrayEquals(new int[]{1, 3, 5, 9}, list.toArray(), "Values should be in ascending order.");
+        assertEquals(4, list.size(), "Incorrect size.");
+        assertEquals(3, list.get(1), "Incorrect value at index 1.");
+    }
+
+    @Test void testRemove() {
+        System.out.println("\nStarting testRemove...");
+
+        IntPostingList list = listOf(1, 3, 5, 9);
+        assertTrue(list.remove(1), "First value should be removed.");
+        assertTrue(list.remove(9), "Last value should be removed.");
+        assertFalse(list.remove(4), "Missing value should not be removed.");
+
+        assertArrayEquals(new int[]{3, 5}, list.toArray(), "Incorrect values after removal.");
+        assertFalse(list.contains(1), "Removed value should not be found.");
+        assertTrue(list.contains(5), "Remaining value should be found.");
+    }
+
+    /**
+     * Every set operation against an empty list, or with an empty array,
+     * gives the expected empty or unchanged result.
+     */
+    @Test void testEmpty() {
+        System.out.println("\nStarting testEmpty...");
+
+        IntPostingList empty = new IntPostingList();
+        IntPostingList list = listOf(2, 4, 6);
+
+        assertTrue(empty.isEmpty(), "New list should be empty.");
+        assertArrayEquals(new int[0], empty.intersect(new int[]{1, 2, 3}), "Nothing is in an empty list.");
+        assertArrayEquals(new int[]{1, 2, 3}, empty.subtractFrom(new int[]{1, 2, 3}), "An empty list removes nothing.");
+        assertArrayEquals(new int[]{1, 2, 3}, empty.unionWith(new int[]{1, 2, 3}), "An empty list adds nothing.");
+
+        assertArrayEquals(new int[0], list.intersect(new int[0]), "Intersecting with nothing gives nothing.");
+        assertArrayEquals(new int[0], list.subtractFrom(new int[0]), "Nothing minus a list is nothing.");
+        assertArrayEquals(new int[]{2, 4, 6}, list.unionWith(new int[0]), "Union with nothing gives the list.");
+        assertArrayEquals(new int[0], empty.intersect(new int[0]), "Two empty inputs give nothing.");
+    }
+
+    /**
+     * Lists that share no values, including ones that lie wholly before or
+     * after each other.
+     */
+    @Test void testDisjoint() {
+        System.out.println("\nStarting testDisjoint...");
+
+        IntPostingList evens = listOf(2, 4, 6, 8);
+
+        assertArrayEquals(new int[0], evens.intersect(new int[]{1, 3, 5, 7, 9}), "Interleaved lists share nothing.");
+        assertArrayEquals(new int[0], evens.intersect(new int[]{10, 11}), "A later array shares nothing.");
+        assertArrayEquals(new int[0], evens.intersect(new int[]{-3, 0, 1}), "An earlier array shares nothing.");
+        assertArrayEquals(new int[]{1, 3, 5}, evens.subtractFrom(new int[]{1, 3, 5}), "Nothing should be subtracted.");
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 8}, evens.unionWith(new int[]{1, 3, 5}), "Union should interleave both.");
+    }
+
+    /**
+     * A short array against a long list makes the gallop take long strides,
+     * including matches on the first and last values of the list.
+     */
+    @Test void testGallop() {
+        System.out.println("\nStarting testGallop...");
+
+        IntPostingList list = new IntPostingList();
+        for (int i = 0; i < 10000; i++) {
+            list.add(i * 3);
+        }
+
+        int[] probe = {0, 1, 3000, 3001, 15000, 29997, 29998, 40000};
+        assertArrayEquals(new int[]{0, 3000, 15000, 29997}, list.intersect(probe), "Incorrect intersection.");
+        assertArrayEquals(new int[]{1, 3001, 29998, 40000}, list.subtractFrom(probe), "Incorrect difference.");
+        assertEquals(10004, list.unionWith(probe).length, "Union should add the 4 values not in the list.");
+    }
+
+    /**
+     * The galloping results match a plain merge over many random lists.
+     */
+    @Test void testMatchesMerge() {
+        System.out.println("\nStarting testMatchesMerge...");
+
+        Random random = new Random(12);
+        for (int round = 0; round < 200; round++) {
+            IntPostingList list = new IntPostingList();
+            TreeSet<Integer> listValues = new TreeSet<>();
+            TreeSet<Integer> arrayValues = new TreeSet<>();
+            int range = 1 + random.nextInt(500);
+            for (int i = random.nextInt(200); i > 0; i--) {
+                int value = random.nextInt(range);
+                list.add(value);
+                listValues.add(value);
+            }
+            for (int i = random.nextInt(50); i > 0; i--) {
+                arrayValues.add(random.nextInt(range));
+            }
+            int[] array = arrayValues.stream().mapToInt(Integer::intValue).toArray();
+
+            TreeSet<Integer> both = new TreeSet<>(arrayValues);
+            both.retainAll(listValues);
+            TreeSet<Integer> onlyArray = new TreeSet<>(arrayValues);
+            onlyArray.removeAll(listValues);
+            TreeSet<Integer> either = new TreeSet<>(arrayValues);
+            either.addAll(listValues);
+
+            assertArrayEquals(both.stream().mapToInt(Integer::intValue).toArray(), list.intersect(array), "Incorrect intersection.");
+            assertArrayEquals(onlyArray.stream().mapToInt(Integer::intValue).toArray(), list.subtractFrom(array), "Incorrect difference.");
+            assertArrayEquals(either.stream().mapToInt(Integer::intValue).toArray(), list.unionWith(array), "Incorrect union.");
+        }
+    }
+
+    /**
+     * IDs added in shuffled order, each twice, are held as pending and merged
+     * on the next read. Add and remove still report exactly whether the value
+     * was present, including between reads.
+     */
+    @Test void testShuffledAdds() {
+        System.out.println("\nStarting testShuffledAdds...");
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            ids.add(i * 2);
+        }
+        Collections.shuffle(ids, new Random(14));
+
+        IntPostingList list = new IntPostingList();
+        for (int id : ids) {
+            assertTrue(list.add(id), "New value should be added.");
+        }
+        for (int id : ids.subList(0, 1000)) {
+            assertFalse(list.add(id), "Repeated value should not be added.");
+        }
+        assertEquals(100000, list.size(), "Size should count pending values.");
+        assertTrue(list.contains(ids.get(0)), "Pending value should be found.");
+        assertFalse(list.contains(1), "Missing value should not be found.");
+
+        int[] values = list.toArray();
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i * 2, values[i], "Values should be merged in ascending order.");
+        }
+    }
+
+    /**
+     * Random adds, removes and reads against a TreeSet, with values in no
+     * particular order.
+     */
+    @Test void testMatchesTreeSet() {
+        System.out.println("\nStarting testMatchesTreeSet...");
+
+        Random random = new Random(41);
+        IntPostingList list = new IntPostingList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int step = 0; step < 20000; step++) {
+            int value = random.nextInt(2000);
+            switch (random.nextInt(5)) {
+                case 0:
+                    assertEquals(expected.remove(value), list.remove(value), "Remove should agree for " + value);
+                    break;
+                case 1:
+                    assertEquals(expected.contains(value), list.contains(value), "Contains should agree for " + value);
+                    break;
+                case 2:
+                    if (random.nextInt(50) == 0) {
+                        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), list.toArray(), "Values should agree.");
+                    }
+                    break;
+                default:
+                    assertEquals(expected.add(value), list.add(value), "Add should agree for " + value);
+                    break;
+            }
+            assertEquals(expected.size(), list.size(), "Sizes should agree.");
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), list.toArray(), "Values should agree.");
+    }
+}
@@ -0,0 +1,111 @@
+import structures.IntRangeIndex;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntRangeIndexTest {
+
+    // Builds an index with keys 10, 20, ..., 50 mapped to IDs 1 to 5
+    private IntRangeIndex sampleIndex() {
+        IntRangeIndex index = new IntRangeIndex();
+        index.add(30, 3);
+        index.add(10, 1);
+        index.add(50, 5);
+        index.add(20, 2);
+        index.add(40, 4);
+        return index;
+    }
+
+    /**
+     * Both bounds are exclusive, so keys equal to a bound are left out.
+     */
+    @Test void testBetweenBounds() {
+        System.out.println("\nStarting testBetweenBounds...");
+
+        IntRangeIndex index = sampleIndex();
+        assertArrayEquals(new int[]{2, 3, 4}, index.between(10, 50), "Keys on the bounds should be left out.");
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, index.between(9, 51), "Keys just inside the bounds should be kept.");
+        assertArrayEquals(new int[]{3}, index.between(29, 31), "A single key should be found.");
+        assertArrayEquals(new int[0], index.between(30, 31), "Lower bound equal to the only key.");
+        assertArrayEquals(new int[0], index.between(29, 30), "Upper bound equal to the only key.");
+    }
+
+    @Test void testBetweenEmpty() {
+        System.out.println("\nStarting testBetweenEmpty...");
+
+        IntRangeIndex index = sampleIndex();
+        assertArrayEquals(new int[0], new IntRangeIndex().between(0, 100), "Empty index should give nothing.");
+        assertArrayEquals(new int[0], index.between(30, 30), "Equal bounds hold no keys.");
+        assertArrayEquals(new int[0], index.between(40, 20), "Reversed bounds hold no keys.");
+        assertArrayEquals(new int[0], index.between(60, 100), "No keys after the last one.");
+    }
+
+    /**
+     * Bounds beyond the int range, and keys at its ends, are handled without
+     * overflow.
+     */
+    @Test void testBetweenExtremes() {
+        System.out.println("\nStarting testBetweenExtremes...");
+
+        IntRangeIndex index = sampleIndex();
+        index.add(Integer.MIN_VALUE, 7);
+        index.add(Integer.MAX_VALUE, 8);
+        index.add(-5, 6);
+
+        assertArrayEquals(new int[]{7, 6, 1, 2, 3, 4, 5, 8}, index.between(Long.MIN_VALUE, Long.MAX_VALUE), "Every key should be found in key order.");
+        assertArrayEquals(new int[]{6, 1, 2, 3, 4, 5}, index.between(Integer.MIN_VALUE, Integer.MAX_VALUE), "Keys on the int bounds should be left out.");
+        assertArrayEquals(new int[0], index.between(Integer.MAX_VALUE, Long.MAX_VALUE), "Nothing lies above the largest int.");
+        assertArrayEquals(new int[0], index.between(Long.MIN_VALUE, Integer.MIN_VALUE), "Nothing lies below the smallest int.");
+    }
+
+    /**
+     * IDs sharing a key come back in ID order.
+     */
+    @Test void testSameKey() {
+        System.out.println("\nStarting testSameKey...");
+
+        IntRangeIndex index = new IntRangeIndex();
+        index.add(7, 30);
+        index.add(7, 10);
+        index.add(7, 20);
+        index.add(8, 5);
+        assertArrayEquals(new int[]{10, 20, 30}, index.between(6, 8), "IDs with the same key should be in ID order.");
+    }
+
+    /**
+     * Adds and removes made between queries are buffered and merged into the
+     * sorted entries by the next query, including removes of pairs still in
+     * the buffer and pairs added again after being removed.
+     */
+    @Test void testBufferedChanges() {
+        System.out.println("\nStarting testBufferedChanges...");
+
+        IntRangeIndex index = sampleIndex();
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, index.between(0, 100), "First query merges the buffer.");
+
+        index.remove(30, 3);
+        index.add(35, 9);
+        index.remove(35, 9);
+        index.add(25, 8);
+        assertEquals(5, index.size(), "Size should count buffered changes.");
+        assertArrayEquals(new int[]{1, 2, 8, 4, 5}, index.between(0, 100), "Buffered changes should be merged.");
+
+        index.remove(10, 1);
+        index.add(10, 1);
+        assertArrayEquals(new int[]{1, 2, 8, 4, 5}, index.between(0, 100), "A removed and re-added pair should stay.");
+
+        //Enough adds to grow the buffer and the sorted entries past their starting size
+        for (int i = 0; i < 40; i++) {
+            index.add(100 + i, 100 + i);
+        }
+        assertEquals(45, index.size(), "Incorrect size after many adds.");
+        assertArrayEquals(new int[]{115, 116}, index.between(114, 117), "Grown entries should be searchable.");
+        assertArrayEquals(new int[]{4, 5, 100}, index.between(39, 101), "Range across old and new entries.");
+
+        for (int i = 0; i < 40; i++) {
+            index.remove(100 + i, 100 + i);
+        }
+        assertArrayEquals(new int[]{5}, index.between(40, 1000), "Removed entries should be gone.");
+        assertEquals(5, index.size(), "Incorrect size after many removes.");
+    }
+}
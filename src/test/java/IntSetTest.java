@@ -0,0 +1,109 @@
+import structures.IntSet;
+import structures.Set0;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntSetTest {
+
+    // Builds a set holding the given members
+    private IntSet setOf(int... members) {
+        IntSet set = new IntSet();
+        for (int member : members) {
+            set.add(member);
+        }
+        return set;
+    }
+
+    /**
+     * Walks with two cursors over the same set, one nested in the other, do
+     * not disturb each other.
+     */
+    @Test void testNestedWalks() {
+        System.out.println("\nStarting testNestedWalks...");
+
+        IntSet set = setOf(1, 2, 3);
+        IntSet.IntIterator outer = new IntSet.IntIterator();
+        IntSet.IntIterator inner = new IntSet.IntIterator();
+        int pairs = 0;
+        for (IntSet.IntIterator i = set.iterator(outer); i.hasNext(); ) {
+            int first = i.next();
+            for (IntSet.IntIterator j = set.iterator(inner); j.hasNext(); ) {
+                j.next();
+                pairs++;
+            }
+            assertTrue(first >= 1 && first <= 3, "Outer walk should keep its place.");
+        }
+        assertEquals(9, pairs, "Every pair should be walked.");
+    }
+
+    /**
+     * A cursor passed to iterator(cursor) is rewound and reused, including
+     * over a different set, and a new cursor has nothing to walk.
+     */
+    @Test void testReusedCursor() {
+        System.out.println("\nStarting testReusedCursor...");
+
+        IntSet.IntIterator cursor = new IntSet.IntIterator();
+        assertFalse(cursor.hasNext(), "A new cursor should have nothing to walk.");
+
+        IntSet first = setOf(5, 6);
+        assertSame(cursor, first.iterator(cursor), "The cursor passed in should be returned.");
+        assertEquals(5, cursor.next(), "Incorrect first member.");
+        assertSame(cursor, first.iterator(cursor), "The cursor should be rewound.");
+        assertEquals(5, cursor.next(), "Rewound cursor should start again.");
+        assertEquals(6, cursor.next(), "Incorrect second member.");
+        assertFalse(cursor.hasNext(), "Walk should end after the last member.");
+
+        IntSet second = setOf(7);
+        second.iterator(cursor);
+        assertEquals(7, cursor.next(), "Cursor should walk the other set.");
+        assertThrows(java.util.NoSuchElementException.class, cursor::next, "Walking past the end should throw.");
+    }
+
+    /**
+     * Random adds and removes give the same answers from Set0 and IntSet as
+     * from a HashSet, and iteration visits every member once.
+     */
+    @Test void testMatchesHashSet() {
+        System.out.println("\nStarting testMatchesHashSet...");
+
+        Random random = new Random(8);
+        Set0<Integer> set0 = new Set0<>();
+        IntSet intSet = new IntSet();
+        HashSet<Integer> expected = new HashSet<>();
+        for (int step = 0; step < 20000; step++) {
+            int value = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                boolean removed = expected.remove(value);
+                assertEquals(removed, set0.remove(value), "Set0 remove should agree for " + value);
+                assertEquals(removed, intSet.remove(value), "IntSet remove should agree for " + value);
+            } else {
+                boolean added = expected.add(value);
+                assertEquals(added, set0.add(value), "Set0 add should agree for " + value);
+                assertEquals(added, intSet.add(value), "IntSet add should agree for " + value);
+            }
+        }
+        assertEquals(expected.size(), set0.size(), "Set0 size should agree.");
+        assertEquals(expected.size(), intSet.size(), "IntSet size should agree.");
+
+        HashSet<Integer> walked = new HashSet<>();
+        for (Integer member : set0) {
+            assertTrue(walked.add(member), "Set0 should visit each member once.");
+        }
+        assertEquals(expected, walked, "Set0 should visit every member.");
+
+        walked.clear();
+        for (IntSet.IntIterator i = intSet.iterator(); i.hasNext(); ) {
+            assertTrue(walked.add(i.next()), "IntSet should visit each member once.");
+        }
+        assertEquals(expected, walked, "IntSet should visit every member.");
+
+        set0.clear();
+        assertTrue(set0.isEmpty(), "Cleared set should be empty.");
+        assertFalse(set0.contains(1), "Cleared set should hold nothing.");
+    }
+}
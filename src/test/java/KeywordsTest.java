@@ -0,0 +1,167 @@
+import stores.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.MethodName.class)
+public class KeywordsTest {
+
+    private Stores stores = new Stores();
+
+    // keywords for tests
+    private Keyword heist = new Keyword(1, "heist");
+    private Keyword basedOnNovel = new Keyword(2, "based on novel");
+    private Keyword hero = new Keyword(3, "hero");
+    private Keyword space = new Keyword(4, "space");
+
+    @BeforeEach
+    void setUp() {
+        stores = new Stores();
+
+        // heist is used 3 times, hero twice, the others once
+        stores.getKeywords().add(201, new Keyword[]{heist, basedOnNovel, hero});
+        stores.getKeywords().add(202, new Keyword[]{heist, hero});
+        stores.getKeywords().add(203, new Keyword[]{heist, space});
+    }
+
+    // Returns the IDs of the keywords, in order
+    int[] idsOf(Keyword[] keywords) {
+        int[] ids = new int[keywords.length];
+        for (int i = 0; i < keywords.length; i++) {
+            ids[i] = keywords[i].getID();
+        }
+        return ids;
+    }
+
+    /**
+     * Films carrying every keyword are returned in ascending order, whatever
+     * order the keyword IDs are given in.
+     */
+    @Test void testGetFilmsWithAllKeywordsPos() {
+        System.out.println("\nStarting testGetFilmsWithAllKeywordsPos...");
+
+        assertArrayEquals(new int[]{201, 202, 203}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}), "Every film carries heist.");
+        assertArrayEquals(new int[]{201, 202}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{3, 1}), "Films 201 and 202 carry heist and hero.");
+        assertArrayEquals(new int[]{201}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1, 2, 3, 1}), "Only film 201 carries all three.");
+    }
+
+    /**
+     * No films are returned for an empty array of keyword IDs, or when any of
+     * the keyword IDs is unknown.
+     */
+    @Test void testGetFilmsWithAllKeywordsNeg() {
+        System.out.println("\nStarting testGetFilmsWithAllKeywordsNeg...");
+
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAllKeywords(new int[0]), "No keyword IDs should give no films.");
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAllKeywords(new int[]{99}), "An unknown keyword should give no films.");
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAllKeywords(new int[]{1, 99}), "No film carries an unknown keyword.");
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAllKeywords(new int[]{2, 4}), "No film carries both keywords.");
+    }
+
+    /**
+     * Films carrying any excluded keyword are dropped, unknown excluded
+     * keywords are ignored, and excluding every film leaves none.
+     */
+    @Test void testGetFilmsWithAllKeywordsExcluded() {
+        System.out.println("\nStarting testGetFilmsWithAllKeywordsExcluded...");
+
+        assertArrayEquals(new int[]{203}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}, new int[]{3}), "Films carrying hero should be dropped.");
+        assertArrayEquals(new int[]{202}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}, new int[]{2, 4}), "Films carrying either keyword should be dropped.");
+        assertArrayEquals(new int[]{201, 202, 203}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}, new int[]{99}), "An unknown excluded keyword should drop nothing.");
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}, new int[]{2, 3, 4}), "Every film should be dropped.");
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}, new int[]{1}), "Excluding an included keyword should drop every film.");
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAllKeywords(new int[0], new int[]{3}), "No keyword IDs should give no films.");
+    }
+
+    /**
+     * Films carrying any of the keywords are returned once each, in
+     * ascending order, and unknown keywords add nothing.
+     */
+    @Test void testGetFilmsWithAnyKeyword() {
+        System.out.println("\nStarting testGetFilmsWithAnyKeyword...");
+
+        assertArrayEquals(new int[]{201, 203}, stores.getKeywords().getFilmsWithAnyKeyword(new int[]{4, 2}), "Films 201 and 203 carry one of the keywords.");
+        assertArrayEquals(new int[]{201, 202, 203}, stores.getKeywords().getFilmsWithAnyKeyword(new int[]{1, 3}), "Each film should be listed once.");
+        assertArrayEquals(new int[]{203}, stores.getKeywords().getFilmsWithAnyKeyword(new int[]{99, 4}), "An unknown keyword should add nothing.");
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAnyKeyword(new int[]{99}), "An unknown keyword should give no films.");
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAnyKeyword(new int[0]), "No keyword IDs should give no films.");
+    }
+
+    /**
+     * Removing a keyword from a film, or removing the film, takes the film
+     * out of the keyword's films. A keyword attached twice stays until both
+     * are removed.
+     */
+    @Test void testKeywordFilmsUpdate() {
+        System.out.println("\nStarting testKeywordFilmsUpdate...");
+
+        assertTrue(stores.getKeywords().removeKeywordFromFilm(202, 3), "Film 202 exists, so the keyword should be removed.");
+        assertArrayEquals(new int[]{201}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1, 3}), "Film 202 no longer carries hero.");
+        assertArrayEquals(new int[]{201, 202}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}, new int[]{4}), "Film 202 is no longer dropped for hero.");
+        assertArrayEquals(new int[]{201}, stores.getKeywords().getFilmsWithAnyKeyword(new int[]{3}), "Film 202 no longer carries hero.");
+
+        assertTrue(stores.getKeywords().remove(201), "Film 201 exists, so it should be removed.");
+        assertArrayEquals(new int[]{202, 203}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}), "Film 201 has been removed.");
+        assertArrayEquals(new int[0], stores.getKeywords().getFilmsWithAnyKeyword(new int[]{2, 3}), "No film carries these keywords any more.");
+        assertArrayEquals(new int[]{202, 203}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}, new int[]{2, 3}), "Removed keywords should drop nothing.");
+
+        stores.getKeywords().add(203, heist);
+        stores.getKeywords().removeKeywordFromFilm(203, 1);
+        assertArrayEquals(new int[]{202, 203}, stores.getKeywords().getFilmsWithAnyKeyword(new int[]{1}), "Film 203 still carries heist once.");
+        stores.getKeywords().removeKeywordFromFilm(203, 1);
+        assertArrayEquals(new int[]{202}, stores.getKeywords().getFilmsWithAllKeywords(new int[]{1}), "Film 203 no longer carries heist.");
+    }
+
+    /**
+     * Keywords with a word starting with the prefix, in any case, are
+     * suggested most used first.
+     */
+    @Test void testSuggestKeywordsPos() {
+        System.out.println("\nStarting testSuggestKeywordsPos...");
+
+        assertArrayEquals(new int[]{1, 3}, idsOf(stores.getKeywords().suggestKeywords("h", 10)), "heist is used more than hero.");
+        assertArrayEquals(new int[]{1}, idsOf(stores.getKeywords().suggestKeywords("H", 1)), "Only the most used keyword should be returned.");
+        assertArrayEquals(new int[]{2}, idsOf(stores.getKeywords().suggestKeywords("nov", 10)), "Any word of the keyword should match.");
+        assertEquals("space", stores.getKeywords().suggestKeywords("spa", 10)[0].getName(), "Incorrect keyword returned.");
+    }
+
+    /**
+     * Nothing is suggested for a prefix no keyword starts with, or from a
+     * store with no keywords.
+     */
+    @Test void testSuggestKeywordsNeg() {
+        System.out.println("\nStarting testSuggestKeywordsNeg...");
+
+        assertArrayEquals(new Keyword[0], stores.getKeywords().suggestKeywords("eist", 10), "A prefix inside a word should not match.");
+        assertArrayEquals(new Keyword[0], stores.getKeywords().suggestKeywords("h", 0), "No keywords should be returned when none are asked for.");
+        assertArrayEquals(new Keyword[0], new Stores().getKeywords().suggestKeywords("h", 10), "No keywords should be returned from an empty store.");
+    }
+
+    /**
+     * Suggestions follow how many times each keyword is used as films and
+     * keywords are removed, and unused keywords are no longer suggested.
+     */
+    @Test void testSuggestKeywordsUpdates() {
+        System.out.println("\nStarting testSuggestKeywordsUpdates...");
+
+        stores.getKeywords().add(204, new Keyword[]{hero});
+        stores.getKeywords().add(205, new Keyword[]{hero});
+        assertArrayEquals(new int[]{3, 1}, idsOf(stores.getKeywords().suggestKeywords("h", 10)), "hero is now used more than heist.");
+
+        stores.getKeywords().remove(204);
+        assertArrayEquals(new int[]{1, 3}, idsOf(stores.getKeywords().suggestKeywords("h", 10)), "Ties should go to the lower ID.");
+
+        stores.getKeywords().removeKeywordFromFilm(201, 2);
+        assertArrayEquals(new Keyword[0], stores.getKeywords().suggestKeywords("based", 10), "based on novel is no longer used.");
+
+        stores.getKeywords().remove(201);
+        stores.getKeywords().remove(202);
+        stores.getKeywords().remove(205);
+        assertArrayEquals(new int[]{1}, idsOf(stores.getKeywords().suggestKeywords("h", 10)), "hero is no longer used.");
+    }
+}
@@ -233,11 +233,16 @@ class MoviesTest {
     };
         
 
+    // Builds the stores each test runs against
+    Stores newStores() {
+        return new Stores();
+    }
+
     @BeforeEach
     void setUp() {
 
-        stores = new Stores();
-        batchStores = new Stores();
+        stores = newStores();
+        batchStores = newStores();
 
         bankOfGenres = new ArrayList<Genre>();
 
@@ -1479,6 +1484,110 @@ class MoviesTest {
 
     }
 
+    /**
+     * Adds company 5 to films 1 and 2, twice to film 2, and countries US to
+     * both and GB to film 2, with US listed twice on film 2. Film 1's votes are
+     * set before its company and countries are added, film 2's after.
+     */
+    void addProductionGroups() {
+        Company studio = new Company(5, "Studio");
+        stores.getMovies().setVote(1, 8.0, 100);
+        stores.getMovies().addProductionCompany(1, studio);
+        stores.getMovies().addProductionCountry(1, "US");
+        stores.getMovies().addProductionCompany(2, studio);
+        stores.getMovies().addProductionCompany(2, new Company(5, "Studio"));
+        stores.getMovies().addProductionCountry(2, "US");
+        stores.getMovies().addProductionCountry(2, "GB");
+        stores.getMovies().addProductionCountry(2, "US");
+        stores.getMovies().setVote(2, 5.0, 300);
+    }
+
+    /**
+     * A company's films, budget, revenue and vote count each film once, even
+     * a film that lists the company twice. The average vote is weighted by
+     * vote count.
+     */
+    @Test void testCompanyAggregatesPos() {
+        System.out.println("\nStarting testCompanyAggregatesPos...");
+
+        addProductionGroups();
+
+        assertArrayEquals(new int[]{1, 2}, stores.getMovies().getFilmsByCompany(5), "Incorrect films returned.");
+        assertEquals(2, stores.getMovies().getNumFilmsByCompany(5), "Film 2 should be counted once.");
+        assertEquals(2, stores.getMovies().getTotalBudgetByCompany(5), "Film 2's budget should be counted once.");
+        assertEquals(4, stores.getMovies().getTotalRevenueByCompany(5), "Film 2's revenue should be counted once.");
+        assertEquals((8.0 * 100 + 5.0 * 300) / 400, stores.getMovies().getAverageVoteByCompany(5), 1e-9, "Average should be weighted by vote count.");
+    }
+
+    /**
+     * A country's films, budget, revenue and vote count each film once, even
+     * a film that lists the country twice.
+     */
+    @Test void testCountryAggregatesPos() {
+        System.out.println("\nStarting testCountryAggregatesPos...");
+
+        addProductionGroups();
+
+        assertArrayEquals(new int[]{1, 2}, stores.getMovies().getFilmsByCountry("US"), "Incorrect films returned.");
+        assertEquals(2, stores.getMovies().getNumFilmsByCountry("US"), "Film 2 should be counted once.");
+        assertEquals(2, stores.getMovies().getTotalBudgetByCountry("US"), "Film 2's budget should be counted once.");
+        assertEquals(4, stores.getMovies().getTotalRevenueByCountry("US"), "Film 2's revenue should be counted once.");
+        assertEquals((8.0 * 100 + 5.0 * 300) / 400, stores.getMovies().getAverageVoteByCountry("US"), 1e-9, "Average should be weighted by vote count.");
+
+        assertArrayEquals(new int[]{2}, stores.getMovies().getFilmsByCountry("GB"), "Incorrect films returned.");
+        assertEquals(1, stores.getMovies().getTotalBudgetByCountry("GB"), "Incorrect budget returned.");
+        assertEquals(5.0, stores.getMovies().getAverageVoteByCountry("GB"), 1e-9, "Incorrect average returned.");
+    }
+
+    /**
+     * Changing a film's votes updates the averages of its company and
+     * countries once, and removing films updates the totals and drops groups
+     * left without films.
+     */
+    @Test void testAggregatesUpdate() {
+        System.out.println("\nStarting testAggregatesUpdate...");
+
+        addProductionGroups();
+
+        stores.getMovies().setVote(2, 6.0, 100);
+        assertEquals((8.0 * 100 + 6.0 * 100) / 200, stores.getMovies().getAverageVoteByCompany(5), 1e-9, "Film 2's new votes should replace its old ones once.");
+        assertEquals((8.0 * 100 + 6.0 * 100) / 200, stores.getMovies().getAverageVoteByCountry("US"), 1e-9, "Film 2's new votes should replace its old ones once.");
+        assertEquals(6.0, stores.getMovies().getAverageVoteByCountry("GB"), 1e-9, "Film 2's new votes should replace its old ones.");
+
+        stores.getMovies().remove(2);
+        assertArrayEquals(new int[]{1}, stores.getMovies().getFilmsByCompany(5), "Film 2 has been removed.");
+        assertEquals(1, stores.getMovies().getTotalBudgetByCountry("US"), "Film 2's budget should be taken out.");
+        assertEquals(8.0, stores.getMovies().getAverageVoteByCompany(5), 1e-9, "Film 2's votes should be taken out.");
+        assertArrayEquals(new int[0], stores.getMovies().getFilmsByCountry("GB"), "GB has no films left.");
+        assertEquals(0, stores.getMovies().getNumFilmsByCountry("GB"), "GB has no films left.");
+        assertEquals(0, stores.getMovies().getTotalRevenueByCountry("GB"), "GB has no films left.");
+        assertEquals(-1, stores.getMovies().getAverageVoteByCountry("GB"), "GB has no films left.");
+
+        stores.getMovies().remove(1);
+        assertArrayEquals(new int[0], stores.getMovies().getFilmsByCompany(5), "The company has no films left.");
+        assertEquals(0, stores.getMovies().getTotalBudgetByCompany(5), "The company has no films left.");
+        assertEquals(-1, stores.getMovies().getAverageVoteByCompany(5), "The company has no films left.");
+    }
+
+    /**
+     * A company or country without films, or whose films have no votes, has
+     * no films, zero totals and an average vote of -1.
+     */
+    @Test void testAggregatesNeg() {
+        System.out.println("\nStarting testAggregatesNeg...");
+
+        assertArrayEquals(new int[0], stores.getMovies().getFilmsByCompany(fakeID), "Unknown company should have no films.");
+        assertEquals(0, stores.getMovies().getNumFilmsByCompany(fakeID), "Unknown company should have no films.");
+        assertEquals(0, stores.getMovies().getTotalRevenueByCompany(fakeID), "Unknown company should have no revenue.");
+        assertEquals(-1, stores.getMovies().getAverageVoteByCompany(fakeID), "Unknown company should have no average.");
+        assertArrayEquals(new int[0], stores.getMovies().getFilmsByCountry("ZZ"), "Unknown country should have no films.");
+        assertEquals(0, stores.getMovies().getTotalBudgetByCountry("ZZ"), "Unknown country should have no budget.");
+
+        stores.getMovies().addProductionCountry(2, "GB");
+        assertEquals(1, stores.getMovies().getNumFilmsByCountry("GB"), "Film 2 should be counted.");
+        assertEquals(-1, stores.getMovies().getAverageVoteByCountry("GB"), "Film 2 has no votes.");
+    }
+
     /**
      * A valid add should return true.
      */
@@ -1616,6 +1725,36 @@ class MoviesTest {
         assertEquals(-1, stores.getMovies().getCollectionID(fakeID), "If a film does not have a collection -1 should be returned.");
     }
 
+    /**
+     * Every film added to a collection reports it, and removing the last
+     * film in the collection drops the collection.
+     */
+    @Test void testGetCollectionIDMany(){
+        System.out.println("\nStarting testGetCollectionIDMany...");
+
+        stores.getMovies().add(3, "Toy Story 2", "Toy Story 2", "overview", "tagline", "released",
+        new Genre[0], LocalDate.of(2002, 1, 1), 1, 2, new String[0], "en",
+        90.0, "homepage", false, false, "poster");
+        assertTrue(stores.getMovies().addToCollection(1, 1, "Toy Story Series", "collectionposter", "collectionbackdrop"), "A valid add should return true.");
+        assertTrue(stores.getMovies().addToCollection(3, 1, "Toy Story Series", "collectionposter", "collectionbackdrop"), "A valid add should return true.");
+
+        for (int filmID : new int[]{1, 2, 3}) {
+            assertEquals(1, stores.getMovies().getCollectionID(filmID), "Incorrect ID returned for film " + filmID);
+        }
+        assertTrue(checkContentsOfArray(new int[]{1, 2, 3}, stores.getMovies().getFilmsInCollection(1)), "Every film should be in the collection.");
+
+        stores.getMovies().remove(2);
+        assertEquals(-1, stores.getMovies().getCollectionID(2), "A removed film should have no collection.");
+        assertEquals(1, stores.getMovies().getCollectionID(3), "Other films should stay in the collection.");
+        assertEquals("Toy Story Series", stores.getMovies().getCollectionName(1), "The collection still has films.");
+
+        stores.getMovies().remove(1);
+        stores.getMovies().remove(3);
+        assertEquals(-1, stores.getMovies().getCollectionID(3), "A removed film should have no collection.");
+        assertArrayEquals(new int[0], stores.getMovies().getFilmsInCollection(1), "The collection has no films left.");
+        assertNull(stores.getMovies().getCollectionName(1), "The collection should be dropped with its last film.");
+    }
+
     /**
      * Should return Toy Story movie with ID 2.
      */
@@ -1636,6 +1775,50 @@ class MoviesTest {
 
     }
 
+    /**
+     * Films with a word of their title starting with the prefix, in any case,
+     * are suggested most popular first.
+     */
+    @Test void testSuggestFilmsPos(){
+        System.out.println("\nStarting testSuggestFilmsPos...");
+
+        assertArrayEquals(new int[]{1, 2}, stores.getMovies().suggestFilms("t", 10), "Film 1 is more popular than film 2.");
+        assertArrayEquals(new int[]{1}, stores.getMovies().suggestFilms("T", 1), "Only the most popular film should be returned.");
+        assertArrayEquals(new int[]{2}, stores.getMovies().suggestFilms("sto", 10), "Any word of the title should match.");
+        assertArrayEquals(new int[]{2}, stores.getMovies().suggestFilms("toy s", 10), "A prefix spanning words should match.");
+    }
+
+    /**
+     * Nothing is suggested for a prefix no title starts with, or when no
+     * suggestions are asked for.
+     */
+    @Test void testSuggestFilmsNeg(){
+        System.out.println("\nStarting testSuggestFilmsNeg...");
+
+        assertArrayEquals(new int[0], stores.getMovies().suggestFilms("itle", 10), "A prefix inside a word should not match.");
+        assertArrayEquals(new int[0], stores.getMovies().suggestFilms("t", 0), "No films should be returned when none are asked for.");
+        assertArrayEquals(new int[0], newStores().getMovies().suggestFilms("t", 10), "No films should be returned from an empty store.");
+    }
+
+    /**
+     * Suggestions follow popularity changes, and removed films are no longer
+     * suggested.
+     */
+    @Test void testSuggestFilmsUpdates(){
+        System.out.println("\nStarting testSuggestFilmsUpdates...");
+
+        stores.getMovies().setPopularity(2, 5.0f);
+        assertArrayEquals(new int[]{2, 1}, stores.getMovies().suggestFilms("t", 10), "Film 2 is now more popular than film 1.");
+
+        stores.getMovies().setPopularity(2, 1.0f);
+        assertArrayEquals(new int[]{1, 2}, stores.getMovies().suggestFilms("t", 10), "Film 2 is now less popular than film 1.");
+
+        stores.getMovies().remove(1);
+        assertArrayEquals(new int[]{2}, stores.getMovies().suggestFilms("t", 10), "Film 1 has been removed.");
+        stores.getMovies().remove(2);
+        assertArrayEquals(new int[0], stores.getMovies().suggestFilms("t", 10), "Every film has been removed.");
+    }
+
     /**
      * Compare size to 2.
      */
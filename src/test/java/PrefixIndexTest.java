@@ -0,0 +1,207 @@
+import structures.PrefixIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefixIndexTest {
+
+    // Builds an index of a few films scored by popularity
+    private PrefixIndex sampleIndex() {
+        PrefixIndex index = new PrefixIndex(3);
+        index.add(1, "Star Wars", 50);
+        index.add(2, "Star Trek", 40);
+        index.add(3, "A Star Is Born", 30);
+        index.add(4, "Stardust", 20);
+        index.add(5, "Wars of the Roses", 10);
+        return index;
+    }
+
+    /**
+     * Prefixes match the start of any word, ignoring case, highest score first.
+     */
+    @Test void testSuggestPos() {
+        System.out.println("\nStarting testSuggestPos...");
+
+        PrefixIndex index = sampleIndex();
+        assertArrayEquals(new int[]{1, 2, 3}, index.suggest("sta", 10), "Best three Star films expected.");
+        assertArrayEquals(new int[]{1, 5}, index.suggest("WARS", 10), "Later words should match too.");
+        assertArrayEquals(new int[]{1}, index.suggest("star w", 10), "Prefix can run over a space.");
+        assertArrayEquals(new int[]{4}, index.suggest("stard", 10), "Longer prefix should narrow the results.");
+        assertArrayEquals(new int[]{1, 2}, index.suggest("  st", 2), "Leading spaces are ignored and the count is kept.");
+    }
+
+    @Test void testSuggestNeg() {
+        System.out.println("\nStarting testSuggestNeg...");
+
+        PrefixIndex index = sampleIndex();
+        assertArrayEquals(new int[0], index.suggest("ars", 10), "Middle of a word should not match.");
+        assertArrayEquals(new int[0], index.suggest("zzz", 10), "Unknown prefix should give nothing.");
+        assertArrayEquals(new int[0], index.suggest("star", 0), "Zero results asked for.");
+        assertArrayEquals(new int[0], new PrefixIndex().suggest("a", 10), "Empty index should give nothing.");
+    }
+
+    /**
+     * Removing an entry drops the cached best entries above it, so the next
+     * best entry takes its place.
+     */
+    @Test void testSuggestAfterRemove() {
+        System.out.println("\nStarting testSuggestAfterRemove...");
+
+        PrefixIndex index = sampleIndex();
+        assertArrayEquals(new int[]{1, 2, 3}, index.suggest("s", 10), "Cache is filled by the first query.");
+
+        assertTrue(index.remove(1), "Entry should be removed.");
+        assertFalse(index.remove(1), "Entry should only be removed once.");
+        assertArrayEquals(new int[]{2, 3, 4}, index.suggest("s", 10), "Next best entry should fill the gap.");
+        assertArrayEquals(new int[]{5}, index.suggest("wars", 10), "Removed entry should be gone from every word.");
+
+        index.remove(2);
+        index.remove(3);
+        index.remove(4);
+        index.remove(5);
+        assertArrayEquals(new int[0], index.suggest("s", 10), "Nothing should be left.");
+        assertEquals(0, index.size(), "Index should be empty.");
+
+        //The trie nodes are reused by new entries
+        index.add(6, "Starship Troopers", 5);
+        assertArrayEquals(new int[]{6}, index.suggest("star", 10), "New entry should be suggested.");
+    }
+
+    /**
+     * Rescoring an entry, or adding it again under another name, updates the
+     * cached rankings.
+     */
+    @Test void testRescore() {
+        System.out.println("\nStarting testRescore...");
+
+        PrefixIndex index = sampleIndex();
+        assertArrayEquals(new int[]{1, 2, 3}, index.suggest("s", 10), "Cache is filled by the first query.");
+
+        assertTrue(index.setScore(4, 100), "Score should be changed.");
+        assertFalse(index.setScore(9, 100), "Missing entry cannot be rescored.");
+        assertArrayEquals(new int[]{4, 1, 2}, index.suggest("s", 10), "Rescored entry should move to the top.");
+
+        index.add(4, "Dune", 100);
+        assertArrayEquals(new int[]{1, 2, 3}, index.suggest("s", 10), "Renamed entry should leave its old words.");
+        assertArrayEquals(new int[]{4}, index.suggest("du", 10), "Renamed entry should be under its new name.");
+    }
+
+    /**
+     * Equal scores are ordered by lower ID first, and a name with two words
+     * under the same prefix is only suggested once.
+     */
+    @Test void testTiesAndRepeats() {
+        System.out.println("\nStarting testTiesAndRepeats...");
+
+        PrefixIndex index = new PrefixIndex();
+        index.add(9, "Tora Tora Tora", 1);
+        index.add(3, "Top Gun", 1);
+        index.add(5, "Toy Story", 1);
+        assertArrayEquals(new int[]{3, 5, 9}, index.suggest("to", 10), "Ties should be broken by ID, with no repeats.");
+    }
+
+    /**
+     * Only the first MAX_DEPTH chars of a word are in the trie, so longer
+     * prefixes are checked against the names themselves.
+     */
+    @Test void testPrefixPastMaxDepth() {
+        System.out.println("\nStarting testPrefixPastMaxDepth...");
+
+        PrefixIndex index = new PrefixIndex();
+        index.add(1, "Supercalifragilisticexpialidocious", 2);
+        index.add(2, "Supercalifragilistic Nights", 1);
+
+        String atDepth = "supercalifragili";
+        assertEquals(PrefixIndex.MAX_DEPTH, atDepth.length(), "Prefix should be exactly MAX_DEPTH long.");
+        assertArrayEquals(new int[]{1, 2}, index.suggest(atDepth, 10), "Both share the first MAX_DEPTH chars.");
+        assertArrayEquals(new int[]{1, 2}, index.suggest("supercalifragilistic", 10), "Both share the longer prefix.");
+        assertArrayEquals(new int[]{1}, index.suggest("supercalifragilistice", 10), "Only one holds the longer prefix.");
+        assertArrayEquals(new int[0], index.suggest("supercalifragilisticz", 10), "Neither holds this prefix.");
+    }
+
+    private static final String[] WORDS = {"star", "stardust", "wars", "war", "the", "tora", "top", "a"};
+    private static final String[] PREFIXES = {"", "s", "st", "star", "stard", "star w", "w", "war", "t", "to", "the", "a", "x"};
+
+    // Returns the IDs suggest should give, found by checking every entry
+    private int[] bruteForce(Map<Integer, String> names, Map<Integer, Float> scores, String prefix, int limit) {
+        List<Integer> matches = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : names.entrySet()) {
+            String name = entry.getValue().toLowerCase(Locale.ROOT);
+            for (int start = 0; start < name.length(); start++) {
+                if ((start == 0 || name.charAt(start - 1) == ' ') && name.startsWith(prefix, start)) {
+                    matches.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        matches.sort((a, b) -> scores.get(a).equals(scores.get(b)) ? Integer.compare(a, b) : Float.compare(scores.get(b), scores.get(a)));
+        return matches.stream().limit(limit).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Random adds, removes and rescores, with names repeating words and
+     * scores tying, give the same suggestions as checking every entry.
+     */
+    @Test void testMatchesBruteForce() {
+        System.out.println("\nStarting testMatchesBruteForce...");
+
+        Random random = new Random(16);
+        PrefixIndex index = new PrefixIndex(4);
+        Map<Integer, String> names = new HashMap<>();
+        Map<Integer, Float> scores = new HashMap<>();
+        for (int step = 0; step < 5000; step++) {
+            int id = random.nextInt(60);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(names.remove(id) != null, index.remove(id), "Remove should agree for " + id);
+                    scores.remove(id);
+                    break;
+                case 1:
+                    float score = random.nextInt(10);
+                    assertEquals(names.containsKey(id), index.setScore(id, score), "Rescore should agree for " + id);
+                    if (names.containsKey(id)) {
+                        scores.put(id, score);
+                    }
+                    break;
+                default:
+                    StringBuilder name = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+                    for (int words = random.nextInt(3); words > 0; words--) {
+                        name.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+                    }
+                    float newScore = random.nextInt(10);
+                    index.add(id, name.toString(), newScore);
+                    names.put(id, name.toString());
+                    scores.put(id, newScore);
+                    break;
+            }
+            String prefix = PREFIXES[random.nextInt(PREFIXES.length)];
+            assertArrayEquals(bruteForce(names, scores, prefix, 4), index.suggest(prefix, 10), "Suggestions should agree for '" + prefix + "' at step " + step);
+        }
+    }
+
+    /**
+     * A common word shared by many entries is suggested straight after the
+     * entries are added, best first.
+     */
+    @Test void testCommonWord() {
+        System.out.println("\nStarting testCommonWord...");
+
+        PrefixIndex index = new PrefixIndex(3);
+        for (int id = 0; id < 20000; id++) {
+            index.add(id, "John Smith " + id, id % 1000);
+        }
+        assertArrayEquals(new int[]{999, 1999, 2999}, index.suggest("j", 10), "Best entries under a common word expected.");
+        assertArrayEquals(new int[]{999, 1999, 2999}, index.suggest("john s", 10), "Prefix running over a space should agree.");
+
+        index.setScore(999, 2000);
+        index.remove(1999);
+        assertArrayEquals(new int[]{999, 2999, 3999}, index.suggest("smith", 10), "Changes should show at once.");
+    }
+}
@@ -326,6 +326,34 @@ public class RatingsTest {
     @Test void testSize(){
         assertEquals(15, stores.getRatings().size(), "Incorrect size.");
     }
-    
-    
+
+    /**
+     * Removing ratings from the middle and the ends of a movie's and a user's
+     * posting lists keeps every other rating, and a later removal of a moved
+     * rating still finds it.
+     */
+    @Test void testRemoveKeepsOtherRatings() {
+        System.out.println("\nStarting testRemoveKeepsOtherRatings...");
+
+        Stores local = new Stores();
+        for (int uid = 1; uid <= 6; uid++) {
+            local.getRatings().add(uid, 300, uid, calendarYear(2000 + uid));
+            local.getRatings().add(7, 300 + uid, uid + 0.5f, calendarYear(2000 + uid));
+        }
+
+        assertTrue(local.getRatings().remove(2, 300), "Rating should be removed.");
+        assertTrue(local.getRatings().remove(6, 300), "Rating should be removed.");
+        assertTrue(local.getRatings().remove(7, 301), "Rating should be removed.");
+        assertTrue(checkContentsOfArray(new float[]{1f, 3f, 4f, 5f}, local.getRatings().getMovieRatings(300)), "Not returning correct ratings for movie.");
+        assertTrue(checkContentsOfArray(new float[]{2.5f, 3.5f, 4.5f, 5.5f, 6.5f}, local.getRatings().getUserRatings(7)), "Not returning correct ratings for user.");
+
+        // 5 and 306 were moved into the freed slots, removing them must still work
+        assertTrue(local.getRatings().remove(5, 300), "Moved rating should be removed.");
+        assertTrue(local.getRatings().remove(7, 306), "Moved rating should be removed.");
+        assertTrue(checkContentsOfArray(new float[]{1f, 3f, 4f}, local.getRatings().getMovieRatings(300)), "Not returning correct ratings for movie.");
+        assertTrue(checkContentsOfArray(new float[]{2.5f, 3.5f, 4.5f, 5.5f}, local.getRatings().getUserRatings(7)), "Not returning correct ratings for user.");
+        assertEquals(3, local.getRatings().getNumRatings(300), "Incorrect number of ratings.");
+        assertEquals(7, local.getRatings().size(), "Incorrect size.");
+    }
+
 }
@@ -0,0 +1,138 @@
+import stores.*;
+import structures.TrigramIndex;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    // Builds an index over a few short documents
+    private TrigramIndex sampleIndex() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "Star Wars", "A long time ago");
+        index.add(2, "Star Trek", null);
+        index.add(3, "Wars of the Roses");
+        index.add(4, "abcXbcd");
+        return index;
+    }
+
+    @Test void testCandidatesPos() {
+        System.out.println("\nStarting testCandidatesPos...");
+
+        TrigramIndex index = sampleIndex();
+        assertArrayEquals(new int[]{1, 2}, index.candidates("Star"), "Both Star films should be candidates.");
+        assertArrayEquals(new int[]{1, 3}, index.candidates("Wars"), "Both Wars films should be candidates.");
+        assertArrayEquals(new int[]{1}, index.candidates("time ago"), "The second text should be indexed too.");
+    }
+
+    /**
+     * Candidates hold every trigram of the term, but may not hold the term
+     * itself, so callers must still check them.
+     */
+    @Test void testCandidatesAreSuperset() {
+        System.out.println("\nStarting testCandidatesAreSuperset...");
+
+        TrigramIndex index = sampleIndex();
+        assertArrayEquals(new int[]{4}, index.candidates("abcd"), "Document holding abc and bcd apart should be a candidate.");
+        assertFalse("abcXbcd".contains("abcd"), "The candidate does not hold the term.");
+    }
+
+    /**
+     * A trigram nobody holds, or one that spans two texts of a document,
+     * gives no candidates. Matching is case sensitive, like String.contains.
+     */
+    @Test void testCandidatesNeg() {
+        System.out.println("\nStarting testCandidatesNeg...");
+
+        TrigramIndex index = sampleIndex();
+        assertArrayEquals(new int[0], index.candidates("Zebra"), "Unknown trigram should give no candidates.");
+        assertArrayEquals(new int[0], index.candidates("WarsA long"), "Trigrams should not span two texts.");
+        assertArrayEquals(new int[0], index.candidates("star"), "Matching should be case sensitive.");
+    }
+
+    /**
+     * Terms shorter than three chars have no trigrams and are refused.
+     */
+    @Test void testShortTerm() {
+        System.out.println("\nStarting testShortTerm...");
+
+        TrigramIndex index = sampleIndex();
+        assertFalse(TrigramIndex.canNarrow(""), "An empty term cannot narrow the search.");
+        assertFalse(TrigramIndex.canNarrow("St"), "A two char term cannot narrow the search.");
+        assertTrue(TrigramIndex.canNarrow("Sta"), "A three char term can narrow the search.");
+        assertThrows(IllegalArgumentException.class, () -> index.candidates("St"), "Short terms should be refused.");
+    }
+
+    @Test void testRemove() {
+        System.out.println("\nStarting testRemove...");
+
+        TrigramIndex index = sampleIndex();
+        index.remove(2, "Star Trek", null);
+        assertArrayEquals(new int[]{1}, index.candidates("Star"), "Removed document should not be a candidate.");
+        assertArrayEquals(new int[0], index.candidates("Trek"), "Trigrams only the removed document held should be gone.");
+
+        TrigramIndex empty = new TrigramIndex();
+        empty.add(7, "abc");
+        empty.remove(7, "abc");
+        assertEquals(0, empty.size(), "Removing the only document should leave no trigrams.");
+    }
+
+    /**
+     * Movies searches short terms by checking every film, so a one or two
+     * char term still finds matches the trigram index cannot narrow to.
+     */
+    @Test void testFindFilmsShortTerm() {
+        System.out.println("\nStarting testFindFilmsShortTerm...");
+
+        Stores stores = new Stores();
+        Genre[] genres = new Genre[0];
+        String[] languages = new String[0];
+        stores.getMovies().add(1, "Up", "Up", "A house flies", "", "Released", genres, LocalDate.of(2009, 5, 29), 0, 0, languages, "en", 96, "", false, false, "");
+        stores.getMovies().add(2, "It", "It", "A clown", "", "Released", genres, LocalDate.of(2017, 9, 8), 0, 0, languages, "en", 135, "", false, false, "");
+
+        assertArrayEquals(new int[]{1}, stores.getMovies().findFilms("Up"), "Two char term should be found.");
+        assertArrayEquals(new int[]{2}, stores.getMovies().findFilms("w"), "One char term should be found in the overview.");
+        assertEquals(2, stores.getMovies().findFilms("").length, "An empty term matches every film.");
+        assertArrayEquals(new int[]{1}, stores.getMovies().findFilms("house"), "Longer term should be found.");
+    }
+
+    /**
+     * Documents added in shuffled ID order, all sharing common trigrams, come
+     * back as candidates in ascending order, before and after removals.
+     */
+    @Test void testShuffledDocuments() {
+        System.out.println("\nStarting testShuffledDocuments...");
+
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < 20000; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, new Random(14));
+
+        TrigramIndex index = new TrigramIndex();
+        for (int id : ids) {
+            index.add(id, "The film " + (id % 2 == 0 ? "even" : "odd"));
+        }
+
+        int[] all = index.candidates("The film");
+        assertEquals(20000, all.length, "Every document should be a candidate.");
+        for (int i = 0; i < all.length; i++) {
+            assertEquals(i, all[i], "Candidates should be in ascending order.");
+        }
+
+        for (int id = 0; id < 20000; id += 4) {
+            index.remove(id, "The film even");
+        }
+        int[] even = index.candidates("even");
+        assertEquals(5000, even.length, "Removed documents should be gone.");
+        for (int i = 0; i < even.length; i++) {
+            assertEquals(i * 4 + 2, even[i], "Remaining even documents should be in ascending order.");
+        }
+    }
+}
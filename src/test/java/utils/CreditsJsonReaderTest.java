@@ -0,0 +1,101 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import stores.CastCredit;
+import stores.CrewCredit;
+
+public class CreditsJsonReaderTest {
+
+    private final LoadData data = new LoadData(null, null);
+
+    // Checks that the reader reads the cast cell, and gives the same credits as org.json
+    private CastCredit[] assertSameCast(String json) {
+        CastCredit[] expected = data.parseCastJson(json);
+        CastCredit[] cast = new CreditsJsonReader().readCast(json);
+        assertNotNull(cast, "Reader should read the cell: " + json);
+        assertEquals(expected.length, cast.length, "Incorrect number of cast credits.");
+        for (int i = 0; i < cast.length; i++) {
+            assertEquals(expected[i].getElementID(), cast[i].getElementID(), "Incorrect cast ID at " + i);
+            assertEquals(expected[i].getCharacter(), cast[i].getCharacter(), "Incorrect character at " + i);
+            assertEquals(expected[i].getCreditID(), cast[i].getCreditID(), "Incorrect credit ID at " + i);
+            assertEquals(expected[i].getID(), cast[i].getID(), "Incorrect person ID at " + i);
+            assertEquals(expected[i].getName(), cast[i].getName(), "Incorrect name at " + i);
+            assertEquals(expected[i].getOrder(), cast[i].getOrder(), "Incorrect order at " + i);
+            assertEquals(expected[i].getProfilePath(), cast[i].getProfilePath(), "Incorrect profile path at " + i);
+        }
+        return cast;
+    }
+
+    // Checks that the reader reads the crew cell, and gives the same credits as org.json
+    private CrewCredit[] assertSameCrew(String json) {
+        CrewCredit[] expected = data.parseCrewJson(json);
+        CrewCredit[] crew = new CreditsJsonReader().readCrew(json);
+        assertNotNull(crew, "Reader should read the cell: " + json);
+        assertEquals(expected.length, crew.length, "Incorrect number of crew credits.");
+        for (int i = 0; i < crew.length; i++) {
+            assertEquals(expected[i].getElementID(), crew[i].getElementID(), "Incorrect credit ID at " + i);
+            assertEquals(expected[i].getDepartment(), crew[i].getDepartment(), "Incorrect department at " + i);
+            assertEquals(expected[i].getID(), crew[i].getID(), "Incorrect person ID at " + i);
+            assertEquals(expected[i].getJob(), crew[i].getJob(), "Incorrect job at " + i);
+            assertEquals(expected[i].getName(), crew[i].getName(), "Incorrect name at " + i);
+            assertEquals(expected[i].getProfilePath(), crew[i].getProfilePath(), "Incorrect profile path at " + i);
+        }
+        return crew;
+    }
+
+    /**
+     * Cells written with double quotes, with single quotes, or with both are
+     * read the same as org.json reads them.
+     */
+    @Test void testQuotingStyles() {
+        System.out.println("\nStarting testQuotingStyles...");
+
+        CastCredit[] cast = assertSameCast("[{\"cast_id\": 14, \"character\": \"Woody (voice)\", \"credit_id\": \"52fe4284c3a36847f8024f95\", "
+                + "\"gender\": 2, \"id\": 31, \"name\": \"Tom Hanks\", \"order\": 0, \"profile_path\": \"/pQFoyx7rp09CJTAb932F2g8Nlho.jpg\"}, "
+                + "{'cast_id': 15, 'character': 'Buzz Lightyear (voice)', 'credit_id': '52fe4284c3a36847f8024f99', "
+                + "'gender': 2, 'id': 12898, 'name': 'Tim Allen', 'order': 1, 'profile_path': '/uX2xVf6pMmPepxnvFWyBtjexzgY.jpg'}]");
+        assertEquals("Buzz Lightyear (voice)", cast[1].getCharacter(), "Single quoted string should be read.");
+
+        CrewCredit[] crew = assertSameCrew("[{'credit_id': \"52fe4284c3a36847f8024f49\", \"department\": 'Directing', 'gender': 2, "
+                + "\"id\": 7879, 'job': \"Director\", \"name\": 'John Lasseter', 'profile_path': \"/7EdqiNbr4FRjIhKHyPPdFfEEEFG.jpg\"}]");
+        assertEquals("John Lasseter", crew[0].getName(), "Mixed quotes should be read.");
+    }
+
+    /**
+     * A quote of the other kind doesn't end a string, and escapes, including
+     * \\u escapes, are decoded in both quoting styles.
+     */
+    @Test void testEscapes() {
+        System.out.println("\nStarting testEscapes...");
+
+        CastCredit[] cast = assertSameCast("[{'cast_id': 1, 'character': 'Dr. \"Doc\" Brown', 'credit_id': 'a\\'b', "
+                + "'gender': 0, 'id': 2, 'name': 'Ren\\u00e9e O\\u0027Hara', 'order': 3, 'profile_path': 'C:\\\\path\\/x\\tjpg'}, "
+                + "{\"cast_id\": 4, \"character\": \"Jack 'The Kid' O'Neil\", \"credit_id\": \"q\\\"t\", "
+                + "\"gender\": 1, \"id\": 5, \"name\": \"Zo\\u00EB\\n\", \"order\": 6, \"profile_path\": \"\"}]");
+        assertEquals("Dr. \"Doc\" Brown", cast[0].getCharacter(), "Double quote inside single quotes should be kept.");
+        assertEquals("a'b", cast[0].getCreditID(), "Escaped single quote should be decoded.");
+        assertEquals("Renée O'Hara", cast[0].getName(), "\\u escapes should be decoded.");
+        assertEquals("C:\\path/x\tjpg", cast[0].getProfilePath(), "Escapes should be decoded.");
+        assertEquals("Jack 'The Kid' O'Neil", cast[1].getCharacter(), "Single quote inside double quotes should be kept.");
+        assertEquals("q\"t", cast[1].getCreditID(), "Escaped double quote should be decoded.");
+        assertEquals("Zoë\n", cast[1].getName(), "Upper case \\u escapes should be decoded.");
+    }
+
+    /**
+     * A string opened with one kind of quote must be closed with the same
+     * kind, otherwise the cell is left to org.json.
+     */
+    @Test void testMismatchedQuotes() {
+        System.out.println("\nStarting testMismatchedQuotes...");
+
+        CreditsJsonReader reader = new CreditsJsonReader();
+        assertNull(reader.readCrew("[{'credit_id\": \"x\", \"department\": \"d\", \"gender\": 0, \"id\": 1, \"job\": \"j\", \"name\": \"n\", \"profile_path\": \"p\"}]"),
+                "Key closed with the other quote should be left to org.json.");
+        assertNull(reader.readCrew("[{\"credit_id\": 'x\", \"department\": \"d\", \"gender\": 0, \"id\": 1, \"job\": \"j\", \"name\": \"n\", \"profile_path\": \"p\"}]"),
+                "String closed with the other quote should be left to org.json.");
+        assertNull(reader.readCrew("[{`credit_id`: \"x\", \"department\": \"d\", \"gender\": 0, \"id\": 1, \"job\": \"j\", \"name\": \"n\", \"profile_path\": \"p\"}]"),
+                "Other quote characters should be left to org.json.");
+    }
+}
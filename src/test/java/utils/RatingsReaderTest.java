@@ -0,0 +1,232 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import structures.IntSet;
+
+public class RatingsReaderTest {
+
+    private static final String HEADER = "userId,movieId,rating,timestamp,tmdbId";
+    private static final Set<Integer> VALID_MOVIES = Set.of(10, 20, 30);
+
+    @TempDir
+    Path tempDir;
+
+    // Writes a ratings file holding the given text
+    private File ratingsFile(String contents) throws IOException {
+        Path file = Files.createTempFile(tempDir, "ratings", ".csv");
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+        return file.toFile();
+    }
+
+    // Describes each loaded rating as userId,tmdbId,rating,timestamp, in the order they were added
+    private List<String> describe(LoadData data) {
+        List<String> ratings = new ArrayList<>();
+        int numByMovie = 0;
+        for (LoadData.RatingRecord rr : data.backendRatings) {
+            ratings.add(rr.userId + "," + rr.movieId + "," + rr.rating + "," + rr.timestamp);
+        }
+        for (List<LoadData.RatingRecord> movieRatings : data.backendRatingsByMovieId.values()) {
+            numByMovie += movieRatings.size();
+        }
+        assertEquals(ratings.size(), numByMovie, "Every rating should also be listed under its movie.");
+        return ratings;
+    }
+
+    private List<String> loadWithCsvParser(File file) throws LoadData.DataLoadException {
+        LoadData data = new LoadData(null, null);
+        data.loadRatingsWithCsvParser(file, VALID_MOVIES);
+        return describe(data);
+    }
+
+    private List<String> loadFromBytes(File file, int numRanges) throws LoadData.DataLoadException {
+        LoadData data = new LoadData(null, null);
+        assertTrue(data.loadRatingsFromBytes(file, VALID_MOVIES, numRanges), "File should be read from its bytes.");
+        return describe(data);
+    }
+
+    // Loads the file with Commons CSV and with a RatingsReader, on one range and on several, and
+    // checks that all three give the same ratings
+    private List<String> loadBothWays(File file) throws LoadData.DataLoadException {
+        List<String> expected = loadWithCsvParser(file);
+        assertEquals(expected, loadFromBytes(file, 1), "Reading the bytes should match Commons CSV.");
+        assertEquals(expected, loadFromBytes(file, 4), "Reading the bytes in ranges should match Commons CSV.");
+        return expected;
+    }
+
+    // Checks that loading the file fails with the given message in all three ways
+    private void assertFailsBothWays(File file, String message) {
+        assertEquals(message, assertThrows(LoadData.DataLoadException.class, () -> loadWithCsvParser(file)).getMessage(),
+                "Incorrect message from Commons CSV.");
+        assertEquals(message, assertThrows(LoadData.DataLoadException.class, () -> new LoadData(null, null).loadRatingsFromBytes(file, VALID_MOVIES, 1)).getMessage(),
+                "Incorrect message from reading the bytes.");
+        assertEquals(message, assertThrows(LoadData.DataLoadException.class, () -> new LoadData(null, null).loadRatingsFromBytes(file, VALID_MOVIES, 4)).getMessage(),
+                "Incorrect message from reading the bytes in ranges.");
+    }
+
+    // Lines of good ratings, one per movie in turn
+    private String goodLines(int count) {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            lines.append(i).append(",1,4.5,").append(1000000000 + i).append(",").append(10 * (1 + i % 3)).append("\n");
+        }
+        return lines.toString();
+    }
+
+    private String describe(int userId, int movieId, float rating, long timestamp) {
+        return userId + "," + movieId + "," + rating + "," + LocalDateTime.ofEpochSecond(timestamp, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Ratings and IDs written in forms the byte decoders hand to the JDK
+     * parsers give the same values as Commons CSV.
+     */
+    @Test void testNumberForms() throws Exception {
+        System.out.println("\nStarting testNumberForms...");
+
+        File file = ratingsFile(HEADER + "\n"
+                + "1,100,3.5,1000000000,10\n"
+                + "2,100,.5,1000000001,20\n"
+                + "3,100,1e1,1000000002,30\n"
+                + "+4,100,+5,1000000003,10\n"
+                + "5,100,4,0000000001000000004,20\n"
+                + "-6,100,-0.25,-1000000005,+30\n");
+
+        List<String> ratings = loadBothWays(file);
+        assertEquals(List.of(
+                describe(1, 10, 3.5f, 1000000000),
+                describe(2, 20, 0.5f, 1000000001),
+                describe(3, 30, 10f, 1000000002),
+                describe(4, 10, 5f, 1000000003),
+                describe(5, 20, 4f, 1000000004),
+                describe(-6, 30, -0.25f, -1000000005)), ratings, "Incorrect ratings.");
+    }
+
+    /**
+     * Empty lines are skipped and \r\n line endings, including the header's,
+     * are read the same as \n.
+     */
+    @Test void testEmptyAndCrlfLines() throws Exception {
+        System.out.println("\nStarting testEmptyAndCrlfLines...");
+
+        File file = ratingsFile(HEADER + "\r\n"
+                + "1,100,3.5,1000000000,10\r\n"
+                + "\r\n"
+                + "\n"
+                + "2,100,4.5,1000000001,20\n"
+                + "3,100,2,1000000002,30");
+
+        List<String> ratings = loadBothWays(file);
+        assertEquals(List.of(
+                describe(1, 10, 3.5f, 1000000000),
+                describe(2, 20, 4.5f, 1000000001),
+                describe(3, 30, 2f, 1000000002)), ratings, "Incorrect ratings.");
+    }
+
+    /**
+     * A file with a quoted field or a stray \r is left to Commons CSV, and
+     * nothing is added from the lines before it.
+     */
+    @Test void testFallBackAddsNothing() throws Exception {
+        System.out.println("\nStarting testFallBackAddsNothing...");
+
+        File quoted = ratingsFile(HEADER + "\n" + goodLines(40) + "1,100,\"3.5\",1000000000,10\n" + goodLines(5));
+        File strayReturn = ratingsFile(HEADER + "\n" + goodLines(40) + "1,100,3.5\r,1000000000,10\n" + goodLines(5));
+        for (File file : List.of(quoted, strayReturn)) {
+            for (int numRanges : new int[]{1, 4}) {
+                LoadData data = new LoadData(null, null);
+                assertFalse(data.loadRatingsFromBytes(file, VALID_MOVIES, numRanges), "File should be left to Commons CSV.");
+                assertTrue(data.backendRatings.isEmpty(), "Nothing should be added before falling back.");
+                assertTrue(data.backendRatingsByMovieId.isEmpty(), "Nothing should be added before falling back.");
+            }
+        }
+        assertEquals(46, loadWithCsvParser(quoted).size(), "Commons CSV should read the quoted file.");
+    }
+
+    /**
+     * Lines that cross the end of a mapped window are read whole from the
+     * next window, and a line longer than a window is refused.
+     */
+    @Test void testLineAcrossMapWindow() throws Exception {
+        System.out.println("\nStarting testLineAcrossMapWindow...");
+
+        String lines = goodLines(30);
+        File file = ratingsFile(HEADER + "\n" + lines);
+        RatingsReader reader = RatingsReader.forHeader(HEADER);
+        assertNotNull(reader, "Header should be accepted.");
+        IntSet movies = new IntSet();
+        for (int movieId : VALID_MOVIES) {
+            movies.add(movieId);
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long start = HEADER.length() + 1;
+            long end = channel.size();
+            RatingsReader.Ratings expected = new RatingsReader.Ratings(0);
+            reader.read(channel, start, end, movies, expected, n -> {});
+            assertEquals(30, expected.size, "Incorrect number of records.");
+
+            //Lines are about 26 bytes long, so most windows end part way through one
+            RatingsReader windowed = reader.withMapWindow(64);
+            assertEquals(30, windowed.scan(channel, start, end), "Scan should count every record.");
+            RatingsReader.Ratings records = new RatingsReader.Ratings(0);
+            assertEquals(30, windowed.read(channel, start, end, movies, records, n -> {}), "Read should give every record.");
+            for (int i = 0; i < expected.size; i++) {
+                assertEquals(expected.userIds[i], records.userIds[i], "Incorrect user at record " + i);
+                assertEquals(expected.movieIds[i], records.movieIds[i], "Incorrect movie at record " + i);
+                assertEquals(expected.ratings[i], records.ratings[i], "Incorrect rating at record " + i);
+                assertEquals(expected.timestamps[i], records.timestamps[i], "Incorrect timestamp at record " + i);
+            }
+
+            assertEquals(-1, reader.withMapWindow(16).scan(channel, start, end), "A line longer than the window should be refused.");
+        }
+    }
+
+    /**
+     * A record with the wrong number of fields is reported with its index,
+     * counting the records in the ranges before it.
+     */
+    @Test void testWrongFieldCount() throws Exception {
+        System.out.println("\nStarting testWrongFieldCount...");
+
+        assertFailsBothWays(ratingsFile(HEADER + "\n" + goodLines(2) + "1,100,3.5,10\n"),
+                "[2] --RATINGS-- Incorrect list of ratings... No. fields found = 4");
+        assertFailsBothWays(ratingsFile(HEADER + "\n" + goodLines(50) + "\n1,100,3.5,1000000000,10,7\n" + goodLines(10)),
+                "[50] --RATINGS-- Incorrect list of ratings... No. fields found = 6");
+    }
+
+    @Test void testUnknownMovie() throws Exception {
+        System.out.println("\nStarting testUnknownMovie...");
+
+        assertFailsBothWays(ratingsFile(HEADER + "\n" + goodLines(50) + "1,100,3.5,1000000000,99\n" + goodLines(10)),
+                "Ratings file contains a rating for a movie (id:99) that doesn't exist in the movie metadata file!");
+    }
+
+    /**
+     * Numbers that no parser accepts, such as a 19 digit timestamp past the
+     * largest long, are reported with the index of their record.
+     */
+    @Test void testBadNumber() throws Exception {
+        System.out.println("\nStarting testBadNumber...");
+
+        assertFailsBothWays(ratingsFile(HEADER + "\n" + goodLines(3) + "1,100,3.5,9999999999999999999,10\n"),
+                "[3] --RATINGS-- Unable to read csv. Item for specified header not found.");
+        assertFailsBothWays(ratingsFile(HEADER + "\n" + goodLines(50) + "one,100,3.5,1000000000,10\n" + goodLines(10)),
+                "[50] --RATINGS-- Unable to read csv. Item for specified header not found.");
+    }
+}